@@ -0,0 +1,65 @@
+package uk.gov.dwp.health.pip.identity.benchmark;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
+
+/**
+ * Formatting and parsing timestamps the old way, with a formatter built per call and a parse
+ * through {@link SimpleDateFormat} and the default zone, against {@link DateParseUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParseBenchmark {
+
+  static final String TIMESTAMP = "2024-03-31 14:05:59";
+
+  private final LocalDateTime dateTime = LocalDateTime.of(2024, 3, 31, 14, 5, 59);
+
+  @Setup
+  public void checkEquivalence() throws ParseException {
+    if (!parseLenient().equals(parseFastPath())
+        || !formatWithNewFormatter().equals(formatWithCachedFormatter())) {
+      throw new IllegalStateException("Fast path disagrees with the legacy parse");
+    }
+  }
+
+  @Benchmark
+  public String formatWithNewFormatter() {
+    return dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+  }
+
+  @Benchmark
+  public String formatWithCachedFormatter() {
+    return DateParseUtil.dateTimeToString(dateTime);
+  }
+
+  @Benchmark
+  public LocalDateTime parseLenient() throws ParseException {
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    return LocalDateTime.ofInstant(sdf.parse(TIMESTAMP).toInstant(), ZoneId.systemDefault());
+  }
+
+  @Benchmark
+  public LocalDateTime parseFastPath() {
+    return DateParseUtil.stringToDateTime(TIMESTAMP);
+  }
+}
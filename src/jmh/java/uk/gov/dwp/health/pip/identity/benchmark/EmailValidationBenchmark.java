@@ -0,0 +1,44 @@
+package uk.gov.dwp.health.pip.identity.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The subject id check in IdentityController, which compiles its pattern on every call through
+ * {@link String#matches}, against matching with a pattern compiled once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+  // Copied from IdentityController, where it is private
+  static final String EMAIL_REGEX = "(^[a-zA-Z0-9+_.-]+@[a-zA-Z0-9.-]+$)";
+  private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+  @Param({"test.user@dwp.gov.uk", "not an email address"})
+  public String subjectId;
+
+  @Benchmark
+  public boolean stringMatches() {
+    return subjectId.matches(EMAIL_REGEX);
+  }
+
+  @Benchmark
+  public boolean compiledPattern() {
+    return EMAIL_PATTERN.matcher(subjectId).matches();
+  }
+}
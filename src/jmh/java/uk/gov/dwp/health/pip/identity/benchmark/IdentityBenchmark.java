@@ -0,0 +1,71 @@
+package uk.gov.dwp.health.pip.identity.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.service.impl.IdentityBuilder;
+import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
+
+/** Status calculation and identity building, run for every idv outcome and status lookup. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdentityBenchmark {
+
+  private final Identity verifiedIdentity =
+      Identity.builder()
+          .id("5ed0d430716609122be7a4d6")
+          .subjectId("test.user@dwp.gov.uk")
+          .identityId(UUID.randomUUID())
+          .dateTime(LocalDateTime.of(2024, 3, 31, 14, 5, 59))
+          .channel("oidv")
+          .nino("RN000000A")
+          .vot(IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM.value())
+          .build();
+  private final Identity legacyIdentity =
+      Identity.builder().subjectId("test.user@dwp.gov.uk").idvStatus("unverified").build();
+  private final IdentityRequestUpdateSchemaV1 request = new IdentityRequestUpdateSchemaV1();
+
+  public IdentityBenchmark() {
+    request.setTimestamp("2024-03-31 14:05:59");
+    request.setIdentityId(UUID.randomUUID());
+    request.setVot(IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM);
+    request.setNino("RN000000A");
+    request.setSubjectId("test.user@dwp.gov.uk");
+    request.setChannel(IdentityRequestUpdateSchemaV1.Channel.OIDV);
+  }
+
+  @Benchmark
+  public String statusFromVot() {
+    return IdentityStatusCalculator.fromIdentity(verifiedIdentity);
+  }
+
+  @Benchmark
+  public String statusFromIdvStatus() {
+    return IdentityStatusCalculator.fromIdentity(legacyIdentity);
+  }
+
+  @Benchmark
+  public Identity createBuilder() {
+    return IdentityBuilder.createBuilder(request).build();
+  }
+
+  @Benchmark
+  public Identity createBuilderFromIdentity() {
+    return IdentityBuilder.createBuilderFromIdentity(verifiedIdentity).build();
+  }
+}
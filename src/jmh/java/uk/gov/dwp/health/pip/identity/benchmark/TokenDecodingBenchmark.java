@@ -0,0 +1,64 @@
+package uk.gov.dwp.health.pip.identity.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.health.pip.identity.model.TokenPayload;
+import uk.gov.dwp.health.pip.identity.utils.TokenUtils;
+
+/** Decoding and parsing a DTH token the old way, through strings, against the byte path. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenDecodingBenchmark {
+
+  static final String TOKEN =
+      "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
+          + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  private final ObjectReader tokenPayloadReader = objectMapper.readerFor(TokenPayload.class);
+
+  @Benchmark
+  public String decodePayloadBySplit() {
+    String[] parts = TOKEN.split("\\.", 0);
+    return new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String decodePayload() {
+    return TokenUtils.decodePayload(TOKEN);
+  }
+
+  @Benchmark
+  public byte[] decodePayloadBytes() {
+    return TokenUtils.decodePayloadBytes(TOKEN);
+  }
+
+  @Benchmark
+  public TokenPayload parseThroughString() throws IOException {
+    return objectMapper.readValue(decodePayloadBySplit(), TokenPayload.class);
+  }
+
+  @Benchmark
+  public TokenPayload parseFromBytes() throws IOException {
+    return tokenPayloadReader.readValue(TokenUtils.decodePayloadBytes(TOKEN));
+  }
+}
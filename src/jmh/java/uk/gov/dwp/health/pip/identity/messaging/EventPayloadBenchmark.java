@@ -0,0 +1,92 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.mockito.Mockito.mock;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import uk.gov.dwp.health.integration.message.events.EventManager;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdentityGuidEventProperties;
+import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdvOutcomeOutboundEventProperties;
+import uk.gov.dwp.health.pip.identity.model.TokenPayload;
+
+/**
+ * Building the event payload maps. Lives in the messaging package because the update events have
+ * package-private constructors; the publishers send to a mocked event manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPayloadBenchmark {
+
+  private final String applicationId = "5ed0d430716609122be7a4d6";
+  private final String identityId = UUID.randomUUID().toString();
+  private final Identity identity =
+      Identity.builder().subjectId("test.user@dwp.gov.uk").nino("RN000000A").build();
+  private final TokenPayload tokenPayload = new TokenPayload();
+
+  private PipIdentityGuidEventPublisher guidEventPublisher;
+  private PipIdvOutcomeMessagePublisher idvOutcomeMessagePublisher;
+
+  @Setup
+  public void setUp() {
+    // Keeps the publishers' info logging out of the measurement
+    ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+    tokenPayload.setSub("test.user@dwp.gov.uk");
+    tokenPayload.setGuid("13f03f9da3a0f493e04df091865f8e77f63");
+    tokenPayload.setVot(TokenPayload.VotEnum.P2_CL_CM);
+
+    EventManager eventManager = mock(EventManager.class);
+    PipIdentityGuidEventProperties guidEventProperties = new PipIdentityGuidEventProperties();
+    guidEventProperties.setTopic("pip-identity");
+    guidEventProperties.setRoutingKey("guid.lookup");
+    guidEventPublisher =
+        new PipIdentityGuidEventPublisher(eventManager, guidEventProperties, Optional.empty());
+    PipIdvOutcomeOutboundEventProperties idvOutcomeProperties =
+        new PipIdvOutcomeOutboundEventProperties();
+    idvOutcomeProperties.setTopicNameIdentityRequest("pip-identity");
+    idvOutcomeProperties.setRoutingKeyIdentityRequest("identity.request");
+    idvOutcomeMessagePublisher =
+        new PipIdvOutcomeMessagePublisher(eventManager, idvOutcomeProperties, Optional.empty());
+  }
+
+  @Benchmark
+  public UpdateCoordinatorIdentityEvent coordinatorEvent() {
+    return new UpdateCoordinatorIdentityEvent(
+        "pip-identity", applicationId, "verified", identityId, "coordinator.update");
+  }
+
+  @Benchmark
+  public UpdatePipCsIdentityEvent pipCsEvent() {
+    return new UpdatePipCsIdentityEvent(
+        "pip-identity", applicationId, "verified", identityId, "pipcs.update");
+  }
+
+  @Benchmark
+  public void publishGuidEvent() {
+    guidEventPublisher.publish(tokenPayload);
+  }
+
+  @Benchmark
+  public void publishIdvOutcomeEvent() {
+    idvOutcomeMessagePublisher.publish(identity, tokenPayload);
+  }
+}
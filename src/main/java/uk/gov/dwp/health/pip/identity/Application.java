@@ -2,10 +2,20 @@ package uk.gov.dwp.health.pip.identity;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// The reactive Mongo client is only created for the reactive register flow, see
+// ReactiveRegistrationConfiguration
+@SpringBootApplication(
+    exclude = {
+      MongoReactiveAutoConfiguration.class,
+      MongoReactiveDataAutoConfiguration.class,
+      MongoReactiveRepositoriesAutoConfiguration.class
+    })
 @EnableScheduling
 @EnableMongoRepositories(basePackages = {"uk.gov.dwp.health.pip.identity"})
 public class Application {
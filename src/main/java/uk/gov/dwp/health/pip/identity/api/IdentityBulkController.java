@@ -0,0 +1,86 @@
+package uk.gov.dwp.health.pip.identity.api;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dwp.health.identity.status.openapi.model.IdvDto;
+import uk.gov.dwp.health.pip.identity.model.BulkIdvStatusDto;
+import uk.gov.dwp.health.pip.identity.model.NinoListDto;
+import uk.gov.dwp.health.pip.identity.service.IdentityService;
+
+@Slf4j
+@RestController
+public class IdentityBulkController {
+
+  private final IdentityService identityService;
+  private final int maxNinos;
+
+  public IdentityBulkController(
+      IdentityService identityService,
+      @Value("${uk.gov.dwp.identity.bulk-lookup.max-ninos:500}") int maxNinos) {
+    this.identityService = identityService;
+    this.maxNinos = maxNinos;
+  }
+
+  @PostMapping(
+      value = "/v1/identity/get-idv-status-by-ninos",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkIdvStatusDto> getIdentitiesByNinos(@RequestBody NinoListDto request) {
+    final List<String> requested = request == null ? null : request.getNinos();
+    if (requested == null || requested.isEmpty() || requested.size() > maxNinos) {
+      log.warn("Bulk idv status request rejected, between 1 and {} ninos allowed", maxNinos);
+      return new ResponseEntity<>(BAD_REQUEST);
+    }
+    // A null in the $in would match every identity without a nino
+    if (requested.stream().anyMatch(StringUtils::isBlank)) {
+      log.warn("Bulk idv status request rejected, blank nino supplied");
+      return new ResponseEntity<>(BAD_REQUEST);
+    }
+    final Set<String> ninos = new LinkedHashSet<>(requested);
+    log.info("Request to get idv status for {} ninos received", ninos.size());
+
+    final Map<String, String> found = identityService.getIdvStatusByNinos(ninos);
+    final Map<String, IdvDto> statuses = new LinkedHashMap<>();
+    final List<String> notFound = new ArrayList<>();
+    for (String nino : ninos) {
+      final IdvDto.IdvStatusEnum status = toIdvStatus(found.get(nino));
+      if (status == null) {
+        notFound.add(nino);
+      } else {
+        statuses.put(nino, new IdvDto().idvStatus(status));
+      }
+    }
+    if (!notFound.isEmpty()) {
+      log.warn("No idv status found for {} of {} ninos", notFound.size(), ninos.size());
+    }
+    return ResponseEntity.ok(
+        BulkIdvStatusDto.builder().statuses(statuses).notFound(notFound).build());
+  }
+
+  // A stored status the API does not know is reported as not found rather than failing the batch
+  private static IdvDto.IdvStatusEnum toIdvStatus(String status) {
+    if (status == null) {
+      return null;
+    }
+    try {
+      return IdvDto.IdvStatusEnum.fromValue(status);
+    } catch (IllegalArgumentException e) {
+      log.warn("Unrecognised idv status {} in bulk lookup", status);
+      return null;
+    }
+  }
+}
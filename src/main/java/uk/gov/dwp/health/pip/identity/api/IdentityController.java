@@ -14,8 +14,8 @@ import uk.gov.dwp.health.identity.status.openapi.model.IdvDto;
 import uk.gov.dwp.health.identity.status.openapi.model.NinoDto;
 import uk.gov.dwp.health.identity.status.openapi.model.RegistrationsLimiterDto;
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
-import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
 import uk.gov.dwp.health.pip.identity.model.IdvAgentUpliftOutcome;
 import uk.gov.dwp.health.pip.identity.service.GuidToNinoService;
 import uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService;
@@ -26,6 +26,7 @@ import uk.gov.dwp.health.pip.identity.service.TokenToNinoService;
 import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
 import uk.gov.dwp.health.pip.identity.utils.TokenUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import static org.springframework.http.HttpStatus.ACCEPTED;
@@ -51,8 +52,8 @@ public class IdentityController implements V1Api {
   @Override
   public ResponseEntity<IdvDto> getIdentityByNino(String nino) {
     log.info("Request to get idv status for nino received");
-    return identityService.getIdentityByNino(nino)
-        .map(IdentityStatusCalculator::fromIdentity)
+    return identityService.getIdentityStatusByNino(nino)
+        .map(IdentityStatusCalculator::fromStatus)
         .map(value -> new ResponseEntity<>(
             new IdvDto().idvStatus(IdvDto.IdvStatusEnum.fromValue(value)),
             OK))
@@ -67,9 +68,10 @@ public class IdentityController implements V1Api {
     if (!subjectId.matches(EMAIL_REGEX)) {
       return new ResponseEntity<>(BAD_REQUEST);
     }
-    final Optional<Identity> identityOptional = identityService.getIdentityBySubjectId(subjectId);
+    final Optional<IdentityStatus> identityOptional =
+        identityService.getIdentityStatusBySubjectId(subjectId);
     return identityOptional
-        .map(IdentityStatusCalculator::fromIdentity)
+        .map(IdentityStatusCalculator::fromStatus)
         .map(value -> new ResponseEntity<>(
                 new IdvDto().idvStatus(IdvDto.IdvStatusEnum.fromValue(value)), OK
             ))
@@ -80,7 +82,7 @@ public class IdentityController implements V1Api {
   public ResponseEntity<IdentityDto> getIdentityByApplicationId(String applicationId) {
     log.info("Request to get Identity by application id received");
 
-    return identityService.getIdentityByApplicationId(applicationId).map(
+    return identityService.getIdentitySummaryByApplicationId(applicationId).map(
             identity -> new ResponseEntity<>(
                 new IdentityDto()
                     .applicationId(identity.getApplicationID())
@@ -93,7 +95,7 @@ public class IdentityController implements V1Api {
   public ResponseEntity<IdentityDto> getIdentityById(String id) {
     log.info("Request to get Identity by id received");
 
-    return identityService.getIdentityById(id).map(
+    return identityService.getIdentitySummaryById(id).map(
             identity -> new ResponseEntity<>(
                 new IdentityDto()
                     .applicationId(identity.getApplicationID())
@@ -107,8 +109,10 @@ public class IdentityController implements V1Api {
       final String token, final String channel, final Boolean publish
   ) {
     log.debug("Encoded token: {} ", token);
-    String payload = TokenUtils.decodePayload(token);
-    log.debug("Decoded token: {} ", payload);
+    byte[] payload = TokenUtils.decodePayloadBytes(token);
+    if (log.isDebugEnabled()) {
+      log.debug("Decoded token: {} ", new String(payload, StandardCharsets.UTF_8));
+    }
     IdentityResponseDto responseDto = identityApiService.register(payload, channel, publish);
 
     ResponseEntity<IdentityResponse> result;
@@ -12,6 +12,7 @@ import uk.gov.dwp.health.pip.identity.exception.AccountNotFoundException;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
 import uk.gov.dwp.health.pip.identity.exception.IdentityNotFoundException;
 import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
+import uk.gov.dwp.health.pip.identity.exception.PublishBufferFullException;
 import uk.gov.dwp.health.pip.identity.exception.ValidationException;
 
 @Component
@@ -56,6 +57,12 @@ public class IdentityControllerAdvise {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
   }
 
+  @ExceptionHandler({PublishBufferFullException.class})
+  public ResponseEntity<Void> handlePublishBufferFullException(PublishBufferFullException ex) {
+    log.warn(ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+  }
+
   @ExceptionHandler({IdentityRestClientException.class, Exception.class})
   public ResponseEntity<Void> handleGenericRuntimeException(Exception ex) {
     log.warn("{} {}", ex.getMessage(), ex.getClass().getName());
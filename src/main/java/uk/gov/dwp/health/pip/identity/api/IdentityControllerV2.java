@@ -2,6 +2,7 @@ package uk.gov.dwp.health.pip.identity.api;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -11,12 +12,20 @@ import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
 import uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService;
 import uk.gov.dwp.health.pip.identity.utils.TokenUtils;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
+// Replaced by ReactiveIdentityControllerV2 when the reactive register flow is enabled
 @Slf4j
 @Controller
 @RequiredArgsConstructor
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.reactive-register",
+    name = "enabled",
+    havingValue = "false",
+    matchIfMissing = true)
 public class IdentityControllerV2 implements V2Api {
 
   private final IdentityRegistrationService identityApiService;
@@ -25,16 +34,26 @@ public class IdentityControllerV2 implements V2Api {
   public ResponseEntity<IdentityResponse2> registerV2(
       final String token, final String channel, final Boolean publish
   ) {
+    IdentityResponseDto responseDto =
+        identityApiService.register(decodePayload(token), channel, publish);
+    ResponseEntity<IdentityResponse2> result = toResponseEntity(responseDto);
+    log.info("register2 response {}", result.getStatusCode());
+    return result;
+  }
+
+  static byte[] decodePayload(String token) {
     log.debug("Encoded token: {} ", token);
-    String payload = TokenUtils.decodePayload(token);
-    log.debug("Decoded token: {} ", payload);
-    IdentityResponseDto responseDto = identityApiService.register(payload, channel, publish);
-    ResponseEntity<IdentityResponse2> result;
+    byte[] payload = TokenUtils.decodePayloadBytes(token);
+    if (log.isDebugEnabled()) {
+      log.debug("Decoded token: {} ", new String(payload, StandardCharsets.UTF_8));
+    }
+    return payload;
+  }
+
+  static ResponseEntity<IdentityResponse2> toResponseEntity(IdentityResponseDto responseDto) {
     final HttpStatus status = responseDto != null && responseDto.isCreated() ? CREATED : OK;
     final IdentityResponse2 body = responseDto == null ? null : responseDto.getIdentityResponse();
-    result = ResponseEntity.status(status).body(body);
-    log.info("register2 response {}", result.getStatusCode());
-    return result;
+    return ResponseEntity.status(status).body(body);
   }
 
 }
@@ -0,0 +1,43 @@
+package uk.gov.dwp.health.pip.identity.api;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.identity.status.openapi.model.IdentityResponse2;
+import uk.gov.dwp.health.pip.identity.service.ReactiveIdentityRegistrationService;
+
+/**
+ * The v2 register endpoint when the reactive register flow is enabled. V2Api is generated with
+ * blocking signatures, so this is mapped by hand to return the registration {@link Mono} and let
+ * Spring MVC complete the request asynchronously rather than holding the servlet thread.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.reactive-register",
+    name = "enabled",
+    havingValue = "true")
+public class ReactiveIdentityControllerV2 {
+
+  private final ReactiveIdentityRegistrationService registrationService;
+
+  @PostMapping(value = "/v2/identity", produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<IdentityResponse2>> registerV2(
+      @RequestHeader("x-id-token") final String token,
+      @RequestHeader(value = "x-channel", required = false) final String channel,
+      @RequestParam(value = "publish-guid-event", required = false) final Boolean publish) {
+    return Mono.fromCallable(() -> IdentityControllerV2.decodePayload(token))
+        .flatMap(payload -> registrationService.register(payload, channel, publish))
+        .map(IdentityControllerV2::toResponseEntity)
+        .defaultIfEmpty(IdentityControllerV2.toResponseEntity(null))
+        .doOnNext(result -> log.info("register2 response {}", result.getStatusCode()));
+  }
+}
@@ -24,8 +24,9 @@ public class MongoDbConfiguration {
   @Value("${feature.mongo.versioned.api.enabled:true}")
   private boolean isMongoVersionedApiEnabled;
 
+  // Shared with the reactive client so both read and write identities the same way
   @Bean
-  public MongoClient mongoClient() {
+  public MongoClientSettings mongoClientSettings() {
     MongoClientSettings.Builder clientSettings =
         MongoClientSettings.builder()
             .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
@@ -33,7 +34,12 @@ public class MongoDbConfiguration {
     if (isMongoVersionedApiEnabled) {
       clientSettings.serverApi(buildServerApi());
     }
-    return MongoClients.create(clientSettings.build(), SpringDataMongoDB.driverInformation());
+    return clientSettings.build();
+  }
+
+  @Bean
+  public MongoClient mongoClient(MongoClientSettings mongoClientSettings) {
+    return MongoClients.create(mongoClientSettings, SpringDataMongoDB.driverInformation());
   }
 
   private ServerApi buildServerApi() {
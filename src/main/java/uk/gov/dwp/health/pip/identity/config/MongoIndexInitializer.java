@@ -0,0 +1,49 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+  static final String NINO_STATUS_INDEX = "nino_vot_idvStatus";
+  static final String SUBJECT_ID_STATUS_INDEX = "subjectId_vot_idvStatus_nino";
+  static final String PENDING_DISTRIBUTION_INDEX = "pendingDistribution_createdAt";
+
+  private final MongoTemplate mongoTemplate;
+
+  // Compound indexes holding every field of IdentityStatus, so status lookups are covered
+  @PostConstruct
+  public void ensureIndexes() {
+    final IndexOperations identityIndexes = mongoTemplate.indexOps(Identity.class);
+    identityIndexes.ensureIndex(
+        new Index()
+            .on("nino", Sort.Direction.ASC)
+            .on("vot", Sort.Direction.ASC)
+            .on("idvStatus", Sort.Direction.ASC)
+            .named(NINO_STATUS_INDEX));
+    identityIndexes.ensureIndex(
+        new Index()
+            .on("subjectId", Sort.Direction.ASC)
+            .on("vot", Sort.Direction.ASC)
+            .on("idvStatus", Sort.Direction.ASC)
+            .on("nino", Sort.Direction.ASC)
+            .named(SUBJECT_ID_STATUS_INDEX));
+    // Sparse so only records with an event waiting in the outbox are indexed
+    identityIndexes.ensureIndex(
+        new Index()
+            .on("pendingDistribution.createdAt", Sort.Direction.ASC)
+            .sparse()
+            .named(PENDING_DISTRIBUTION_INDEX));
+    log.info("Identity status indexes ensured");
+  }
+}
@@ -0,0 +1,52 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.SpringDataMongoDB;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import uk.gov.dwp.health.pip.identity.config.properties.GuidWebClientProperties;
+import uk.gov.dwp.health.pip.identity.repository.ReactiveIdentityRepository;
+
+@Configuration
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.reactive-register",
+    name = "enabled",
+    havingValue = "true")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveIdentityRepository.class)
+public class ReactiveRegistrationConfiguration {
+
+  // The blocking GUID client would hold a thread for the token fetch and lookup of every
+  // registration, so the reactive register flow only runs with the reactive client
+  public ReactiveRegistrationConfiguration(GuidWebClientProperties guidWebClientProperties) {
+    if (!guidWebClientProperties.isEnabled()) {
+      throw new IllegalStateException(
+          "uk.gov.dwp.identity.reactive-register.enabled needs "
+              + "uk.gov.dwp.guid.service.reactive-client.enabled");
+    }
+  }
+
+  @Bean
+  public MongoClient reactiveMongoClient(MongoClientSettings mongoClientSettings) {
+    return MongoClients.create(mongoClientSettings, SpringDataMongoDB.driverInformation());
+  }
+
+  // Reuses the imperative converter so both templates map identities the same way
+  @Bean
+  public ReactiveMongoTemplate reactiveMongoTemplate(
+      MongoClient reactiveMongoClient,
+      MongoProperties mongoProperties,
+      MappingMongoConverter mappingMongoConverter) {
+    return new ReactiveMongoTemplate(
+        new SimpleReactiveMongoDatabaseFactory(
+            reactiveMongoClient, mongoProperties.getMongoClientDatabase()),
+        mappingMongoConverter);
+  }
+}
@@ -0,0 +1,37 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import uk.gov.dwp.health.pip.identity.service.RegistrationsLimiterGetter;
+
+@Configuration
+@Slf4j
+@ConditionalOnExpression("${feature.data.changestream.enabled:false}")
+public class RegistrationChangeStreamConfiguration {
+
+  static final String REGISTRATION_COLLECTION = "registration";
+
+  // Drops the cached registrations count whenever the counter document changes. The container
+  // does not auto start, so it is started here and stopped with the context
+  @Bean
+  public MessageListenerContainer registrationChangeStreamContainer(
+      MongoTemplate mongoTemplate, RegistrationsLimiterGetter registrationsLimiterGetter) {
+    MessageListenerContainer container = new DefaultMessageListenerContainer(mongoTemplate);
+    container.register(
+        ChangeStreamRequest.builder()
+            .collection(REGISTRATION_COLLECTION)
+            .publishTo(message -> registrationsLimiterGetter.evictRegistrationsCount())
+            .build(),
+        Document.class,
+        throwable -> log.warn("Error on registration change stream", throwable));
+    container.start();
+    return container;
+  }
+}
@@ -0,0 +1,24 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RegistrationCountConsolidator {
+
+  private final RegistrationRepository registrationRepository;
+
+  // One-off move of pre-existing counter documents onto the fixed _id, a no-op once done
+  @PostConstruct
+  public void consolidate() {
+    final long removed = registrationRepository.consolidateRegistrationCounts();
+    if (removed > 0) {
+      log.info("Consolidated {} legacy registration count documents", removed);
+    }
+  }
+}
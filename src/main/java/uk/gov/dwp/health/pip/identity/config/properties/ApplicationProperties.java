@@ -1,5 +1,6 @@
 package uk.gov.dwp.health.pip.identity.config.properties;
 
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -12,4 +13,6 @@ import org.springframework.context.annotation.Configuration;
 public class ApplicationProperties {
 
   private int accountRegistrationsLimit;
+
+  private Duration registrationsCountCacheTtl = Duration.ofSeconds(5);
 }
@@ -0,0 +1,31 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.health.identity.outbound.buffered-publish")
+@Configuration
+@Getter
+@Setter
+public class BufferedEventPublishProperties {
+
+  private boolean enabled = false;
+
+  // Events held before register requests are turned away
+  private int capacity = 1000;
+
+  // Each worker publishes one event at a time, so about 50 events a second per worker at 20ms a
+  // publish. Size for the expected peak, or the buffer fills and register requests are turned away
+  private int workers = 4;
+
+  private int maxAttempts = 3;
+
+  // Multiplied by the attempt number between retries of a failed event
+  private Duration retryBackoff = Duration.ofMillis(200);
+
+  // How long shutdown waits for the workers before sending what is left itself
+  private Duration shutdownTimeout = Duration.ofSeconds(5);
+}
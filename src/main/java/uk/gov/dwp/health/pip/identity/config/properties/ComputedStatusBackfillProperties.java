@@ -0,0 +1,18 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.identity.computed-status-backfill")
+@Configuration
+@Getter
+@Setter
+public class ComputedStatusBackfillProperties {
+
+  private boolean enabled = true;
+
+  private int batchSize = 500;
+
+}
@@ -1,6 +1,7 @@
 package uk.gov.dwp.health.pip.identity.config.properties;
 
 import jakarta.validation.constraints.NotBlank;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -17,4 +18,8 @@ public class CoordinatorClientProperties {
   @NotBlank(message = "Coordinator base url required")
   private String baseUrl;
 
+  private Duration routingCacheTtl = Duration.ofSeconds(30);
+
+  private long routingCacheMaxSize = 10_000;
+
 }
@@ -0,0 +1,19 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.guid.service.cache")
+@Configuration
+@Getter
+@Setter
+public class GuidCacheProperties {
+
+  private long maxSize = 10_000;
+
+  private Duration ttl = Duration.ofHours(1);
+
+}
@@ -0,0 +1,29 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.guid.service.reactive-client")
+@Configuration
+@Getter
+@Setter
+public class GuidWebClientProperties {
+
+  private boolean enabled;
+
+  private int maxConnections = 50;
+
+  private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+  private Duration maxIdleTime = Duration.ofSeconds(30);
+
+  private Duration maxLifeTime = Duration.ofMinutes(5);
+
+  private Duration connectTimeout = Duration.ofSeconds(5);
+
+  private Duration responseTimeout = Duration.ofSeconds(10);
+
+}
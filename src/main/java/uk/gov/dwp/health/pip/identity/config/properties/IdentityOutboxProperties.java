@@ -0,0 +1,28 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.identity.outbox")
+@Configuration
+@Getter
+@Setter
+public class IdentityOutboxProperties {
+
+  private boolean enabled = false;
+
+  // Pending events read by each run of the relay
+  private int batchSize = 50;
+
+  // Events still failing after this many attempts are left on the record for investigation
+  private int maxAttempts = 10;
+
+  // How long one relay instance holds an event before another may pick it up
+  private Duration claimDuration = Duration.ofMinutes(1);
+
+  // Events from one batch sent at the same time
+  private int sendConcurrency = 4;
+}
@@ -0,0 +1,25 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.health.identity.response.inbound.batch")
+@Configuration
+@Getter
+@Setter
+public class IdvOutcomeBatchProperties {
+
+  private boolean enabled = false;
+
+  // Matches the most messages a single SQS receive can return
+  private int maxSize = 10;
+
+  // How long the first message of a batch waits for others to join it
+  private Duration linger = Duration.ofMillis(20);
+
+  // How long a listener thread waits for its message to be taken into a batch before failing it
+  private Duration timeout = Duration.ofSeconds(30);
+}
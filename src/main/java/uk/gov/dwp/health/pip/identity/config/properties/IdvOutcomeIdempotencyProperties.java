@@ -0,0 +1,28 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.health.identity.response.inbound.idempotency")
+@Configuration
+@Getter
+@Setter
+public class IdvOutcomeIdempotencyProperties {
+
+  private boolean enabled = false;
+
+  // How long a processed message is remembered, should exceed the queue's retention period
+  private Duration ttl = Duration.ofDays(7);
+
+  // Messages expected within the ttl, the smallest the bloom filter is sized for
+  private long expectedMessages = 1_000_000;
+
+  private double falsePositiveRate = 0.01;
+
+  // How long a claim can be held without being marked or released before another delivery takes
+  // it over, should exceed the longest a message takes to process
+  private Duration claimTimeout = Duration.ofMinutes(5);
+}
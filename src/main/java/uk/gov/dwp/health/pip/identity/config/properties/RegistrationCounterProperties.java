@@ -0,0 +1,17 @@
+package uk.gov.dwp.health.pip.identity.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@ConfigurationProperties(prefix = "uk.gov.dwp.identity.registration-counter")
+@Configuration
+@Getter
+@Setter
+public class RegistrationCounterProperties {
+
+  // Registrations held in memory before the counting thread flushes them itself
+  private long maxUnflushed = 100;
+
+}
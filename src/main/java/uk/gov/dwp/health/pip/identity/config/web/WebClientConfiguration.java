@@ -1,18 +1,22 @@
 package uk.gov.dwp.health.pip.identity.config.web;
 
 import static io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS;
+import static io.netty.channel.ChannelOption.SO_KEEPALIVE;
 import static java.time.Duration.ofMillis;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import uk.gov.dwp.health.monitoring.logging.LoggerContext;
+import uk.gov.dwp.health.pip.identity.config.properties.GuidWebClientProperties;
 
 @Configuration
 public class WebClientConfiguration {
@@ -53,4 +57,35 @@ public class WebClientConfiguration {
         .clientConnector(new ReactorClientHttpConnector(getHttpClient(timeout)))
         .build();
   }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "uk.gov.dwp.guid.service.reactive-client",
+      name = "enabled",
+      havingValue = "true")
+  public WebClient guidServiceWebClient(
+      @Value("${uk.gov.dwp.integration-gateway.base-url}") String baseUrl,
+      GuidWebClientProperties properties) {
+
+    ConnectionProvider connectionProvider =
+        ConnectionProvider.builder("guid-service")
+            .maxConnections(properties.getMaxConnections())
+            .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+            .maxIdleTime(properties.getMaxIdleTime())
+            .maxLifeTime(properties.getMaxLifeTime())
+            .evictInBackground(properties.getMaxIdleTime())
+            .metrics(true)
+            .build();
+    HttpClient httpClient =
+        HttpClient.create(connectionProvider)
+            .option(CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+            .option(SO_KEEPALIVE, true)
+            .keepAlive(true)
+            .responseTimeout(properties.getResponseTimeout());
+
+    return WebClient.builder()
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
 }
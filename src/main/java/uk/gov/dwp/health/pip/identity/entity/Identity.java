@@ -11,6 +11,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
 import uk.gov.dwp.health.mongo.changestream.extension.MongoChangeStreamIdentifier;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -73,8 +74,17 @@ public class Identity extends MongoChangeStreamIdentifier {
   @Field(value = "vot")
   private String vot;
 
+  // Derived from vot, idvStatus and nino by IdentityStatusCalculator whenever the record is saved
+  @Field(value = "computedStatus")
+  @Indexed
+  private String computedStatus;
+
   // If this field is set then the identity recrod was uplifted by this staffId
   @Field(value = "upliftDetails")
   private UpliftDto upliftDetails;
 
+  // Set while an IDV update for this record is waiting in the outbox for IdentityOutboxRelay
+  @Field(value = "pendingDistribution")
+  private PendingDistribution pendingDistribution;
+
 }
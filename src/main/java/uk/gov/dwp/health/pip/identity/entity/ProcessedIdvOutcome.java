@@ -0,0 +1,25 @@
+package uk.gov.dwp.health.pip.identity.entity;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Getter
+@AllArgsConstructor
+@Document(collection = "processed_idv_outcome")
+public class ProcessedIdvOutcome {
+
+  // identityId and timestamp of the inbound message
+  @Id private String id;
+
+  // Expired by the TTL index IdvOutcomeIdempotencyStore creates
+  @Field(value = "processedAt")
+  private Instant processedAt;
+
+  // Set while a delivery holds the message, absent once it has been processed
+  @Field(value = "inProgress")
+  private Boolean inProgress;
+}
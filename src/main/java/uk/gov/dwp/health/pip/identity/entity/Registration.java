@@ -11,6 +11,9 @@ import org.springframework.data.mongodb.core.mapping.Field;
 @Document(collection = "registration")
 public class Registration {
 
+  // Every instance shares one counter document, addressed by this _id
+  public static final String COUNTER_ID = "registrations";
+
   @Id private String id;
 
   @Field(value = "count")
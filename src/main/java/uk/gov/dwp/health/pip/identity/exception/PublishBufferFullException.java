@@ -0,0 +1,7 @@
+package uk.gov.dwp.health.pip.identity.exception;
+
+public class PublishBufferFullException extends RuntimeException {
+  public PublishBufferFullException(String message) {
+    super(message);
+  }
+}
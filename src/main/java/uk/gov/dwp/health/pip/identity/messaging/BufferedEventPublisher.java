@@ -0,0 +1,140 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.integration.message.events.Event;
+import uk.gov.dwp.health.integration.message.events.EventManager;
+import uk.gov.dwp.health.pip.identity.config.properties.BufferedEventPublishProperties;
+import uk.gov.dwp.health.pip.identity.exception.PublishBufferFullException;
+
+/**
+ * Takes outbound events off the request thread. Events are held in a bounded buffer and sent one
+ * at a time by each of a pool of {@code workers}, retrying a failed event with a growing backoff.
+ * Workers send in parallel, so events are not published in the order they were enqueued. A full
+ * buffer, or one that is being drained for shutdown, rejects the event rather than blocking the
+ * caller.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.health.identity.outbound.buffered-publish",
+    name = "enabled",
+    havingValue = "true")
+public class BufferedEventPublisher {
+
+  private final EventManager eventManager;
+  private final BufferedEventPublishProperties properties;
+  private final BlockingQueue<Event> buffer;
+  private final Counter dropped;
+  private final List<Thread> workers = new ArrayList<>();
+  private volatile boolean stopping;
+
+  public BufferedEventPublisher(
+      EventManager eventManager,
+      BufferedEventPublishProperties properties,
+      MeterRegistry meterRegistry) {
+    this.eventManager = eventManager;
+    this.properties = properties;
+    this.buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+    this.dropped = meterRegistry.counter("identity.events.publish.dropped");
+    Gauge.builder("identity.events.publish.buffer.depth", buffer, BlockingQueue::size)
+        .register(meterRegistry);
+    for (int i = 0; i < properties.getWorkers(); i++) {
+      final Thread worker = new Thread(this::run, "buffered-event-publisher-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  public void enqueue(Event event) {
+    if (stopping) {
+      throw new PublishBufferFullException("Outbound event publisher is shutting down");
+    }
+    if (!buffer.offer(event)) {
+      log.warn("Outbound event buffer full, rejecting event for topic {}", event.getTopic());
+      throw new PublishBufferFullException("Outbound event buffer is full");
+    }
+    // Shutdown may have drained the buffer between the check and the offer. Taking the event back
+    // fails only when the drain already has it and will send it
+    if (stopping && buffer.remove(event)) {
+      throw new PublishBufferFullException("Outbound event publisher is shutting down");
+    }
+  }
+
+  int bufferDepth() {
+    return buffer.size();
+  }
+
+  @PreDestroy
+  public void stop() {
+    stopping = true;
+    workers.forEach(Thread::interrupt);
+    final long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+    try {
+      for (Thread worker : workers) {
+        TimeUnit.NANOSECONDS.timedJoin(worker, Math.max(1, deadline - System.nanoTime()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    final List<Event> remaining = new ArrayList<>();
+    buffer.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      log.info("Sending {} buffered events before shutdown", remaining.size());
+      remaining.forEach(this::sendOnce);
+    }
+  }
+
+  private void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      final Event event;
+      try {
+        event = buffer.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      send(event);
+    }
+  }
+
+  private void send(Event event) {
+    for (int attempt = 1; !sendOnce(event); attempt++) {
+      if (attempt >= properties.getMaxAttempts()) {
+        log.error(
+            "Dropping outbound event for topic {} after {} attempts", event.getTopic(), attempt);
+        dropped.increment();
+        return;
+      }
+      try {
+        Thread.sleep(properties.getRetryBackoff().toMillis() * attempt);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        // Hand the event back so shutdown sends it
+        buffer.offer(event);
+        return;
+      }
+    }
+  }
+
+  private boolean sendOnce(Event event) {
+    try {
+      eventManager.send(event);
+      return true;
+    } catch (Exception e) {
+      log.warn("Error publishing event to topic {}: {}", event.getTopic(), e.getMessage());
+      return false;
+    }
+  }
+}
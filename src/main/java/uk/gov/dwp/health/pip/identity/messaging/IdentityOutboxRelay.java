@@ -0,0 +1,171 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
+
+/**
+ * Sends the IDV update events left on identity records by IdentityServiceImpl, oldest first, and
+ * clears each one once it has been handed to IdvUpdateMessageDistributor. An event is claimed
+ * before it is sent so instances running the relay together do not send it twice; an instance
+ * that stops mid send leaves the claim to expire and the event is sent again. The events read by
+ * one run are sent concurrently on the relay's own threads, so a slow send neither holds up the
+ * rest of the batch nor the scheduler thread shared with other jobs.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.outbox",
+    name = "enabled",
+    havingValue = "true")
+public class IdentityOutboxRelay {
+
+  private static final String ID = "_id";
+  private static final String PENDING = "pendingDistribution";
+  private static final String EVENT_ID = PENDING + ".eventId";
+  private static final String CREATED_AT = PENDING + ".createdAt";
+  private static final String ATTEMPTS = PENDING + ".attempts";
+  private static final String CLAIMED_UNTIL = PENDING + ".claimedUntil";
+
+  private final MongoTemplate mongoTemplate;
+  private final IdvUpdateMessageDistributor idvUpdateMessageDistributor;
+  private final IdentityOutboxProperties properties;
+  private final ExecutorService sendExecutor;
+  private final Counter abandoned;
+
+  @Autowired
+  public IdentityOutboxRelay(
+      MongoTemplate mongoTemplate,
+      IdvUpdateMessageDistributor idvUpdateMessageDistributor,
+      IdentityOutboxProperties properties,
+      MeterRegistry meterRegistry) {
+    this.mongoTemplate = mongoTemplate;
+    this.idvUpdateMessageDistributor = idvUpdateMessageDistributor;
+    this.properties = properties;
+    final AtomicInteger threads = new AtomicInteger();
+    this.sendExecutor =
+        Executors.newFixedThreadPool(
+            properties.getSendConcurrency(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "identity-outbox-relay-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.abandoned = meterRegistry.counter("identity.outbox.events.abandoned");
+  }
+
+  @Scheduled(fixedDelayString = "${uk.gov.dwp.identity.outbox.relay-interval:1000}")
+  public void relay() {
+    try {
+      final List<Identity> pending = findPending();
+      CompletableFuture.allOf(
+              pending.stream()
+                  .map(identity -> CompletableFuture.runAsync(() -> send(identity), sendExecutor))
+                  .toArray(CompletableFuture[]::new))
+          .join();
+      if (!pending.isEmpty()) {
+        log.info("Relayed {} pending IDV update events", pending.size());
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to relay pending IDV update events, will retry: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    sendExecutor.shutdown();
+  }
+
+  // Events claimed by another instance are left out so they do not fill the batch
+  private List<Identity> findPending() {
+    final Instant now = Instant.now();
+    final Query query =
+        new Query(
+                where(CREATED_AT)
+                    .exists(true)
+                    .and(ATTEMPTS)
+                    .lt(properties.getMaxAttempts())
+                    .orOperator(unclaimedAt(now)))
+            .with(Sort.by(CREATED_AT))
+            .limit(properties.getBatchSize());
+    query.fields().include(ID, PENDING);
+    return mongoTemplate.find(query, Identity.class);
+  }
+
+  private void send(Identity identity) {
+    final PendingDistribution event = identity.getPendingDistribution();
+    final Instant now = Instant.now();
+    final Query unclaimed =
+        new Query(
+            where(ID)
+                .is(identity.getId())
+                .and(EVENT_ID)
+                .is(event.getEventId())
+                .orOperator(unclaimedAt(now)));
+    final Identity claimed =
+        mongoTemplate.findAndModify(
+            unclaimed,
+            new Update().set(CLAIMED_UNTIL, now.plus(properties.getClaimDuration())),
+            FindAndModifyOptions.options().returnNew(true),
+            Identity.class);
+    if (claimed == null) {
+      return;
+    }
+    final Query sameEvent = new Query(sameEvent(identity.getId(), event));
+    try {
+      idvUpdateMessageDistributor.distribute(event);
+      mongoTemplate.updateFirst(sameEvent, new Update().unset(PENDING), Identity.class);
+    } catch (RuntimeException e) {
+      log.warn(
+          "Failed to send IDV update event {} on attempt {}: {}",
+          event.getEventId(),
+          event.getAttempts() + 1,
+          e.getMessage());
+      final boolean counted =
+          mongoTemplate
+                  .updateFirst(
+                      sameEvent, new Update().inc(ATTEMPTS, 1).unset(CLAIMED_UNTIL), Identity.class)
+                  .getModifiedCount()
+              > 0;
+      if (counted && event.getAttempts() + 1 >= properties.getMaxAttempts()) {
+        log.error(
+            "IDV update event {} not sent after {} attempts, left for investigation",
+            event.getEventId(),
+            properties.getMaxAttempts());
+        abandoned.increment();
+      }
+    }
+  }
+
+  private static Criteria[] unclaimedAt(Instant now) {
+    return new Criteria[] {where(CLAIMED_UNTIL).exists(false), where(CLAIMED_UNTIL).lt(now)};
+  }
+
+  // A later update may have replaced the event, which must then be left for the next run
+  private static Criteria sameEvent(String id, PendingDistribution event) {
+    return where(ID).is(id).and(EVENT_ID).is(event.getEventId());
+  }
+}
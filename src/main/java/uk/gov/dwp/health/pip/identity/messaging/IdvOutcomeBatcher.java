@@ -0,0 +1,170 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.config.properties.IdvOutcomeBatchProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.UpliftOutcome;
+import uk.gov.dwp.health.pip.identity.service.IdentityService;
+
+/**
+ * Gathers IDV outcome messages handed over by concurrent listener threads into batches of up to
+ * {@code maxSize} for the Mongo work only: one read finds the records for a whole batch, and one
+ * bulk write records a whole batch of planned changes. Each listener thread plans its own change
+ * in between, including any application manager lookup, and records its message on its own when
+ * the bulk write leaves it out, so slow calls run concurrently rather than behind one thread.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.health.identity.response.inbound.batch",
+    name = "enabled",
+    havingValue = "true")
+public class IdvOutcomeBatcher {
+
+  private final IdentityService identityService;
+  private final Stage<IdentityRequestUpdateSchemaV1, List<Identity>> reads;
+  private final Stage<IdentityChange, UpliftOutcome> writes;
+
+  public IdvOutcomeBatcher(
+      IdentityService identityService, IdvOutcomeBatchProperties properties) {
+    this.identityService = identityService;
+    this.reads =
+        new Stage<>("idv-outcome-batch-reads", identityService::findUpliftCandidates, properties);
+    this.writes =
+        new Stage<>("idv-outcome-batch-writes", identityService::applyUpliftChanges, properties);
+  }
+
+  public Identity record(IdentityRequestUpdateSchemaV1 request) {
+    final List<Identity> candidates = reads.submit(request);
+    final IdentityChange change = identityService.planUpliftedIdentity(request, candidates);
+    final UpliftOutcome outcome = writes.submit(change);
+    if (outcome.isNotApplied()) {
+      log.info("IDV outcome left out of the bulk write, recording it on its own");
+      return identityService.recordUpliftedIdentity(request);
+    }
+    return outcome.getIdentity();
+  }
+
+  @PreDestroy
+  public void stop() {
+    reads.stop();
+    writes.stop();
+  }
+
+  /**
+   * Runs one call for each batch of items submitted by concurrent callers. An item is either
+   * taken into a batch or given up by its caller's timeout, never both, so a message the caller
+   * failed was never processed and its redelivery cannot run alongside it. A caller whose item
+   * is already in a batch waits for that batch however long it takes.
+   */
+  private static final class Stage<I, O> {
+
+    private final Function<List<I>, List<O>> call;
+    private final IdvOutcomeBatchProperties properties;
+    private final BlockingQueue<Pending<I, O>> pending = new LinkedBlockingQueue<>();
+    private final Thread worker;
+
+    private Stage(
+        String name, Function<List<I>, List<O>> call, IdvOutcomeBatchProperties properties) {
+      this.call = call;
+      this.properties = properties;
+      this.worker = new Thread(this::run, name);
+      this.worker.setDaemon(true);
+      this.worker.start();
+    }
+
+    private O submit(I item) {
+      final Pending<I, O> submitted = new Pending<>(item);
+      pending.add(submitted);
+      try {
+        try {
+          return submitted.result()
+              .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          if (submitted.take()) {
+            throw new GenericRuntimeException(
+                "IDV outcome batch did not start within " + properties.getTimeout());
+          }
+          return submitted.result().get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new GenericRuntimeException("Interrupted waiting for IDV outcome batch");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new GenericRuntimeException("IDV outcome batch did not complete: " + e.getMessage());
+      }
+    }
+
+    private void stop() {
+      worker.interrupt();
+    }
+
+    private void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+        final List<Pending<I, O>> batch = new ArrayList<>(properties.getMaxSize());
+        try {
+          batch.add(pending.take());
+          final long deadline = System.nanoTime() + properties.getLinger().toNanos();
+          while (batch.size() < properties.getMaxSize()) {
+            final Pending<I, O> next =
+                pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+              break;
+            }
+            batch.add(next);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        batch.removeIf(item -> !item.take());
+        process(batch);
+      }
+    }
+
+    private void process(List<Pending<I, O>> batch) {
+      if (batch.isEmpty()) {
+        return;
+      }
+      log.info("Processing batch of {} IDV outcome messages", batch.size());
+      try {
+        final List<O> results = call.apply(batch.stream().map(Pending::item).toList());
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).result().complete(results.get(i));
+        }
+      } catch (RuntimeException e) {
+        log.error("Failed to process batch of IDV outcome messages: {}", e.getMessage());
+        batch.forEach(item -> item.result().completeExceptionally(e));
+      }
+    }
+  }
+
+  private record Pending<I, O>(I item, CompletableFuture<O> result, AtomicBoolean taken) {
+
+    private Pending(I item) {
+      this(item, new CompletableFuture<>(), new AtomicBoolean());
+    }
+
+    private boolean take() {
+      return taken.compareAndSet(false, true);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.config.properties.IdvOutcomeIdempotencyProperties;
+import uk.gov.dwp.health.pip.identity.entity.ProcessedIdvOutcome;
+import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.utils.StringBloomFilter;
+
+/**
+ * Remembers which IDV outcome messages have been processed, keyed on identity id and timestamp,
+ * so a redelivered message can be dropped before any downstream calls. A message is claimed by
+ * inserting its key into a TTL indexed collection before it is processed, and the unique _id
+ * decides between concurrent deliveries of the same message. The claim is marked processed once
+ * the message is handled, or released if handling fails so the redelivery can run. A bloom filter
+ * of the keys sits in front of the collection so a message that has never been seen is claimed
+ * with the insert alone; keys written by other instances reach it on the next refresh.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.health.identity.response.inbound.idempotency",
+    name = "enabled",
+    havingValue = "true")
+public class IdvOutcomeIdempotencyStore {
+
+  static final String TTL_INDEX = "processedAt_ttl";
+  private static final String ID = "_id";
+  private static final String PROCESSED_AT = "processedAt";
+  private static final String IN_PROGRESS = "inProgress";
+  // Allows for clock differences between the instances writing processedAt
+  private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+  private final MongoTemplate mongoTemplate;
+  private final IdvOutcomeIdempotencyProperties properties;
+  private final Clock clock;
+  private final Counter duplicates;
+  private final AtomicReference<StringBloomFilter> processedKeys = new AtomicReference<>();
+  private final AtomicLong keysInFilter = new AtomicLong();
+  private volatile long filterCapacity;
+  private volatile Instant lastRefresh = Instant.EPOCH;
+
+  @Autowired
+  public IdvOutcomeIdempotencyStore(
+      MongoTemplate mongoTemplate,
+      IdvOutcomeIdempotencyProperties properties,
+      MeterRegistry meterRegistry) {
+    this(mongoTemplate, properties, meterRegistry, Clock.systemUTC());
+  }
+
+  IdvOutcomeIdempotencyStore(
+      MongoTemplate mongoTemplate,
+      IdvOutcomeIdempotencyProperties properties,
+      MeterRegistry meterRegistry,
+      Clock clock) {
+    this.mongoTemplate = mongoTemplate;
+    this.properties = properties;
+    this.clock = clock;
+    this.duplicates = meterRegistry.counter("identity.idv.outcome.duplicates");
+    Gauge.builder("identity.idv.outcome.idempotency.keys", keysInFilter, AtomicLong::get)
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void initialise() {
+    mongoTemplate
+        .indexOps(ProcessedIdvOutcome.class)
+        .ensureIndex(
+            new Index()
+                .on(PROCESSED_AT, Sort.Direction.ASC)
+                .expire(properties.getTtl())
+                .named(TTL_INDEX));
+    rebuild();
+  }
+
+  /**
+   * Returns false when the message has already been processed, true when this delivery now holds
+   * it, and throws while another delivery is processing it so this one is retried later.
+   */
+  public boolean claim(IdentityRequestUpdateSchemaV1 payload) {
+    final String key = key(payload);
+    if (processedKeys.get().mightContain(key)) {
+      final ProcessedIdvOutcome existing = mongoTemplate.findById(key, ProcessedIdvOutcome.class);
+      if (existing != null) {
+        return claimExisting(existing);
+      }
+    }
+    try {
+      mongoTemplate.insert(new ProcessedIdvOutcome(key, clock.instant(), true));
+      return true;
+    } catch (DuplicateKeyException e) {
+      final ProcessedIdvOutcome existing = mongoTemplate.findById(key, ProcessedIdvOutcome.class);
+      if (existing == null) {
+        throw new GenericRuntimeException("IDV outcome message claim was released concurrently");
+      }
+      return claimExisting(existing);
+    }
+  }
+
+  public void markProcessed(IdentityRequestUpdateSchemaV1 payload) {
+    final String key = key(payload);
+    mongoTemplate.upsert(
+        new Query(where(ID).is(key)),
+        new Update().set(PROCESSED_AT, clock.instant()).unset(IN_PROGRESS),
+        ProcessedIdvOutcome.class);
+    addToFilter(processedKeys.get(), key);
+  }
+
+  // An unreleased claim is taken over once the claim timeout passes
+  public void release(IdentityRequestUpdateSchemaV1 payload) {
+    try {
+      mongoTemplate.remove(
+          new Query(where(ID).is(key(payload)).and(IN_PROGRESS).is(true)),
+          ProcessedIdvOutcome.class);
+    } catch (RuntimeException e) {
+      log.error("Unable to release IDV outcome message claim: {}", e.getMessage());
+    }
+  }
+
+  private boolean claimExisting(ProcessedIdvOutcome existing) {
+    if (!Boolean.TRUE.equals(existing.getInProgress())) {
+      duplicates.increment();
+      return false;
+    }
+    final Instant now = clock.instant();
+    if (existing.getProcessedAt().isBefore(now.minus(properties.getClaimTimeout()))) {
+      // The delivery holding the claim stopped without marking or releasing it
+      final Query abandoned =
+          new Query(
+              where(ID)
+                  .is(existing.getId())
+                  .and(IN_PROGRESS)
+                  .is(true)
+                  .and(PROCESSED_AT)
+                  .is(existing.getProcessedAt()));
+      final Update takeOver = new Update().set(PROCESSED_AT, now);
+      if (mongoTemplate
+              .updateFirst(abandoned, takeOver, ProcessedIdvOutcome.class)
+              .getModifiedCount()
+          > 0) {
+        log.warn("Took over abandoned claim on IDV outcome message {}", existing.getId());
+        return true;
+      }
+    }
+    throw new GenericRuntimeException("IDV outcome message is already being processed");
+  }
+
+  @Scheduled(
+      fixedDelayString =
+          "${uk.gov.dwp.health.identity.response.inbound.idempotency.refresh-interval:5000}")
+  public void refresh() {
+    try {
+      if (keysInFilter.get() > filterCapacity) {
+        rebuild();
+      } else {
+        loadKeysProcessedSince(lastRefresh.minus(REFRESH_OVERLAP));
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to refresh processed IDV outcome keys, will retry: {}", e.getMessage());
+    }
+  }
+
+  // Builds a fresh filter from the keys the TTL index has not yet expired before swapping it in,
+  // so the filter in use never misses a processed key while the rebuild runs. It is sized for
+  // twice the keys still live, so those keys alone can never trigger the next rebuild
+  private void rebuild() {
+    final Instant startedAt = clock.instant();
+    final long capacity =
+        Math.max(
+            properties.getExpectedMessages(),
+            2 * mongoTemplate.estimatedCount(ProcessedIdvOutcome.class));
+    final StringBloomFilter rebuilt =
+        new StringBloomFilter(capacity, properties.getFalsePositiveRate());
+    final long loaded = loadKeysProcessedSince(rebuilt, Instant.EPOCH);
+    processedKeys.set(rebuilt);
+    keysInFilter.set(loaded);
+    filterCapacity = capacity;
+    // Keys marked on this instance went into the old filter while the rebuild was running
+    loadKeysProcessedSince(processedKeys.get(), startedAt.minus(REFRESH_OVERLAP));
+    log.info("Loaded {} processed IDV outcome keys", keysInFilter.get());
+  }
+
+  private void loadKeysProcessedSince(Instant since) {
+    loadKeysProcessedSince(processedKeys.get(), since);
+  }
+
+  // Returns how many of the keys were new to the filter
+  private long loadKeysProcessedSince(StringBloomFilter filter, Instant since) {
+    final Instant refreshedAt = clock.instant();
+    final Query query = new Query(where(PROCESSED_AT).gte(since));
+    query.fields().include(ID);
+    final AtomicLong added = new AtomicLong();
+    try (Stream<Document> keys =
+        mongoTemplate.stream(
+            query, Document.class, mongoTemplate.getCollectionName(ProcessedIdvOutcome.class))) {
+      keys.forEach(
+          document -> {
+            if (addToFilter(filter, document.getString(ID))) {
+              added.incrementAndGet();
+            }
+          });
+    }
+    lastRefresh = refreshedAt;
+    return added.get();
+  }
+
+  private boolean addToFilter(StringBloomFilter filter, String key) {
+    // Only keys new to the filter count towards its capacity, as refreshes overlap
+    final boolean added = filter.put(key);
+    if (added && filter == processedKeys.get()) {
+      keysInFilter.incrementAndGet();
+    }
+    return added;
+  }
+
+  long filterCapacity() {
+    return filterCapacity;
+  }
+
+  private static String key(IdentityRequestUpdateSchemaV1 payload) {
+    return payload.getIdentityId() + "_" + payload.getTimestamp();
+  }
+}
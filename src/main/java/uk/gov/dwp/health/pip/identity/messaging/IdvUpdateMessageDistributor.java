@@ -4,7 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.ApplicationRouting;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
 import uk.gov.dwp.health.pip.identity.service.CoordinatorService;
 import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
 
@@ -21,36 +23,36 @@ public class IdvUpdateMessageDistributor {
 
   public void distribute(IdentityRequestUpdateSchemaV1 payload, Identity identity) {
 
-    if (isIdentityVerified(payload) && isPipServiceApplication(identity)) {
-      updateCoordinatorIdentityMessagePublisher.publishMessage(
-          identity.getApplicationID(),
-          IdentityStatusCalculator.fromIdentity(identity),
-          identity.getIdentityId().toString());
-      log.info("Update COORDINATOR IDV Message publish completed.");
+    if (!PendingDistribution.isIdentityVerified(payload)) {
+      return;
     }
 
-    if (isIdentityVerified(payload) && isPipcsApplication(identity)) {
-      updatePipCsIdentityMessagePublisher.publishMessage(
-          identity.getApplicationID(),
-          IdentityStatusCalculator.fromIdentity(identity),
-          identity.getIdentityId().toString());
-      log.info("Update PIPCS IDV Message publish completed.");
-    }
+    distribute(
+        identity.getApplicationID(),
+        IdentityStatusCalculator.fromIdentity(identity),
+        identity.getIdentityId().toString());
   }
 
-  private boolean isIdentityVerified(IdentityRequestUpdateSchemaV1 payload) {
-    return payload.getVot() == IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM
-        || payload.getIdvOutcome() == IdentityRequestUpdateSchemaV1.IdvOutcome.VERIFIED;
+  public void distribute(PendingDistribution pendingDistribution) {
+    distribute(
+        pendingDistribution.getApplicationId(),
+        pendingDistribution.getIdvStatus(),
+        pendingDistribution.getIdentityId());
   }
 
-  private boolean isPipcsApplication(final Identity identity) {
-    return coordinatorService.isPipcsApplication(identity.getApplicationID());
-  }
+  private void distribute(String applicationId, String idvStatus, String identityId) {
+    final ApplicationRouting routing = coordinatorService.resolveRouting(applicationId);
 
-  private boolean isPipServiceApplication(final Identity identity) {
-    return coordinatorService.isPipServiceApplication(identity.getApplicationID());
+    if (routing.isPipServiceApplication()) {
+      updateCoordinatorIdentityMessagePublisher.publishMessage(
+          applicationId, idvStatus, identityId);
+      log.info("Update COORDINATOR IDV Message publish completed.");
+    }
+
+    if (routing.isPipcsApplication()) {
+      updatePipCsIdentityMessagePublisher.publishMessage(applicationId, idvStatus, identityId);
+      log.info("Update PIPCS IDV Message publish completed.");
+    }
   }
 
 }
-
-
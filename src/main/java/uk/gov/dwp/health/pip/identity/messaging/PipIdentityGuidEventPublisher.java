@@ -2,6 +2,7 @@ package uk.gov.dwp.health.pip.identity.messaging;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.UUID;
 
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
 public class PipIdentityGuidEventPublisher {
   private final EventManager eventManager;
   private final PipIdentityGuidEventProperties eventProperties;
+  private final Optional<BufferedEventPublisher> bufferedEventPublisher;
 
   public void publish(TokenPayload tokenPayload) {
     log.info("Attempting to publish Pip Identity guid event to guid matcher lambda");
@@ -40,6 +42,10 @@ public class PipIdentityGuidEventPublisher {
     PipIdentityGuidEvent pipIdentityGuidEvent =
         new PipIdentityGuidEvent(
             eventProperties.getTopic(), eventProperties.getRoutingKey(), payload);
+    if (bufferedEventPublisher.isPresent()) {
+      bufferedEventPublisher.get().enqueue(pipIdentityGuidEvent);
+      return;
+    }
     try {
       eventManager.send(pipIdentityGuidEvent);
     } catch (Exception e) {
@@ -10,13 +10,16 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
 import uk.gov.dwp.health.integration.message.consumers.HealthMessageConsumer;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
 import uk.gov.dwp.health.pip.identity.exception.NoKeyChangesToExistingRecordException;
 import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdvOutcomeInboundEventProperties;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
 import uk.gov.dwp.health.pip.identity.service.IdentityService;
 
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,6 +33,11 @@ public class PipIdvOutcomeMessageConsumer
   private final Validator validator;
   private final IdentityService identityService;
   private final IdvUpdateMessageDistributor idvUpdateMessageDistributor;
+  private final IdentityOutboxProperties outboxProperties;
+  // Present when uk.gov.dwp.health.identity.response.inbound.batch.enabled is set
+  private final Optional<IdvOutcomeBatcher> idvOutcomeBatcher;
+  // Present when uk.gov.dwp.health.identity.response.inbound.idempotency.enabled is set
+  private final Optional<IdvOutcomeIdempotencyStore> idempotencyStore;
 
   @Override
   public String getQueueName() {
@@ -48,18 +56,47 @@ public class PipIdvOutcomeMessageConsumer
           violationProps + " values are not supplied or not valid", violations);
     }
 
+    process(payload);
+    log.info("IDV MATCHER MESSAGE SUCCESSFULLY PROCESSED");
+  }
+
+  private void process(IdentityRequestUpdateSchemaV1 payload) {
+    if (idempotencyStore.map(store -> !store.claim(payload)).orElse(false)) {
+      log.warn("Duplicate IDV outcome message dropped");
+      return;
+    }
     try {
-      final Identity identity = identityService.recordUpliftedIdentity(payload);
+      final Identity identity = recordUpliftedIdentity(payload);
       final boolean noErrorMessage = StringUtils.isEmpty(identity.getErrorMessage());
-      if (noErrorMessage) {
+      if (noErrorMessage && !isLeftForOutboxRelay(payload, identity)) {
         idvUpdateMessageDistributor.distribute(payload, identity);
       }
     } catch (NoKeyChangesToExistingRecordException ex) {
       log.warn("No key changes to existing record detected");
     } catch (ConflictException e) {
       log.warn("Conflict Exception thrown creating identity");
+    } catch (RuntimeException e) {
+      // Lets the redelivery of this message claim it straight away
+      idempotencyStore.ifPresent(store -> store.release(payload));
+      throw e;
     }
-    log.info("IDV MATCHER MESSAGE SUCCESSFULLY PROCESSED");
+    idempotencyStore.ifPresent(store -> store.markProcessed(payload));
+  }
+
+  // The event this update wrote is sent by IdentityOutboxRelay instead. The service writes one
+  // exactly when the outbox is enabled and the update needs sending; an event still pending from
+  // an earlier update is carried forward on the record and is not this update's
+  private boolean isLeftForOutboxRelay(
+      IdentityRequestUpdateSchemaV1 payload, Identity identity) {
+    return outboxProperties.isEnabled()
+        && identity.getPendingDistribution() != null
+        && PendingDistribution.isRequired(payload, identity);
+  }
+
+  private Identity recordUpliftedIdentity(IdentityRequestUpdateSchemaV1 payload) {
+    return idvOutcomeBatcher
+        .map(batcher -> batcher.record(payload))
+        .orElseGet(() -> identityService.recordUpliftedIdentity(payload));
   }
 
   private String getViolationProps(
@@ -12,6 +12,7 @@ import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -20,6 +21,7 @@ import java.util.UUID;
 public class PipIdvOutcomeMessagePublisher {
   private final EventManager eventManager;
   private final PipIdvOutcomeOutboundEventProperties eventProperties;
+  private final Optional<BufferedEventPublisher> bufferedEventPublisher;
 
   public void publish(final Identity identity, final TokenPayload tokenPayload) {
     log.info("Queuing up identity for app id lookup and push to PIPCS");
@@ -43,6 +45,10 @@ public class PipIdvOutcomeMessagePublisher {
             eventProperties.getTopicNameIdentityRequest(),
             eventProperties.getRoutingKeyIdentityRequest(), payload
         );
+    if (bufferedEventPublisher.isPresent()) {
+      bufferedEventPublisher.get().enqueue(pipIdentityGuidEvent);
+      return;
+    }
     try {
       eventManager.send(pipIdentityGuidEvent);
     } catch (Exception e) {
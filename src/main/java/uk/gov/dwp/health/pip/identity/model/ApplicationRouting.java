@@ -0,0 +1,19 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class ApplicationRouting {
+
+  // Unrouted and unknown applications are treated as belonging to both services
+  public static final ApplicationRouting UNROUTED = ApplicationRouting.of(true, true);
+
+  private final boolean pipServiceApplication;
+  private final boolean pipcsApplication;
+}
@@ -0,0 +1,36 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AppliedChange {
+
+  public enum Status {
+    WRITTEN,
+    // The update's condition no longer held, so the change has to be planned again
+    NOT_APPLIED,
+    FAILED
+  }
+
+  private final Status status;
+  private final Identity identity;
+  private final RuntimeException failure;
+
+  public static AppliedChange written(Identity identity) {
+    return new AppliedChange(Status.WRITTEN, identity, null);
+  }
+
+  public static AppliedChange notApplied() {
+    return new AppliedChange(Status.NOT_APPLIED, null, null);
+  }
+
+  public static AppliedChange failed(RuntimeException failure) {
+    return new AppliedChange(Status.FAILED, null, failure);
+  }
+}
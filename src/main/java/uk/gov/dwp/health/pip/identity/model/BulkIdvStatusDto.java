@@ -0,0 +1,20 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import uk.gov.dwp.health.identity.status.openapi.model.IdvDto;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkIdvStatusDto {
+  private Map<String, IdvDto> statuses;
+  private List<String> notFound;
+}
@@ -0,0 +1,31 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class IdentityChange {
+
+  // Null when the change creates a new record
+  private final Identity current;
+  private final Identity updated;
+  private final IdentityKeyInformation key;
+
+  public static IdentityChange insert(Identity identity) {
+    return new IdentityChange(null, identity, null);
+  }
+
+  public static IdentityChange update(
+      Identity current, Identity updated, IdentityKeyInformation key) {
+    return new IdentityChange(current, updated, key);
+  }
+
+  public boolean isInsert() {
+    return current == null;
+  }
+}
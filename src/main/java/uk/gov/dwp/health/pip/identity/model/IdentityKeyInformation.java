@@ -0,0 +1,19 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class IdentityKeyInformation {
+
+  private final String subjectId;
+  private final String nino;
+  // An absent vot is held as an empty string, matching a record with no vot
+  private final String vot;
+  private final String idvStatus;
+}
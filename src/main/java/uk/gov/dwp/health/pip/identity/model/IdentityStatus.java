@@ -0,0 +1,18 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+// Read-only projection of the identity fields needed to calculate an idv status
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class IdentityStatus {
+
+  private final String nino;
+  private final String vot;
+  private final String idvStatus;
+}
@@ -0,0 +1,18 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+// Read-only projection of the identity fields returned by the identity lookups
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class IdentitySummary {
+
+  private final String applicationID;
+  private final String nino;
+  private final String subjectId;
+}
@@ -0,0 +1,17 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NinoListDto {
+  private List<String> ninos;
+}
@@ -0,0 +1,51 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
+
+/**
+ * An IDV update still to be sent to the coordinator or PIPCS, held on the identity record it
+ * describes so it is written by the same operation as the update itself.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class PendingDistribution {
+
+  private final String eventId;
+  private final String applicationId;
+  private final String idvStatus;
+  private final String identityId;
+  private final Instant createdAt;
+  private final int attempts;
+  private final Instant claimedUntil;
+
+  public static PendingDistribution of(Identity identity, Instant now) {
+    return new PendingDistribution(
+        UUID.randomUUID().toString(),
+        identity.getApplicationID(),
+        IdentityStatusCalculator.fromIdentity(identity),
+        String.valueOf(identity.getIdentityId()),
+        now,
+        0,
+        null);
+  }
+
+  // The same rule the consumer applies before handing an update to IdvUpdateMessageDistributor
+  public static boolean isRequired(IdentityRequestUpdateSchemaV1 request, Identity identity) {
+    return isIdentityVerified(request) && StringUtils.isEmpty(identity.getErrorMessage());
+  }
+
+  public static boolean isIdentityVerified(IdentityRequestUpdateSchemaV1 request) {
+    return request.getVot() == IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM
+        || request.getIdvOutcome() == IdentityRequestUpdateSchemaV1.IdvOutcome.VERIFIED;
+  }
+}
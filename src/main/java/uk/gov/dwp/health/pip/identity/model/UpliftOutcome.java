@@ -0,0 +1,40 @@
+package uk.gov.dwp.health.pip.identity.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UpliftOutcome {
+
+  private final Identity identity;
+  private final RuntimeException failure;
+  private final boolean applied;
+
+  public static UpliftOutcome recorded(Identity identity) {
+    return new UpliftOutcome(identity, null, true);
+  }
+
+  public static UpliftOutcome failed(RuntimeException failure) {
+    return new UpliftOutcome(null, failure, true);
+  }
+
+  // The change was left out of the bulk write and the request needs recording on its own
+  public static UpliftOutcome notApplied() {
+    return new UpliftOutcome(null, null, false);
+  }
+
+  public boolean isNotApplied() {
+    return !applied;
+  }
+
+  // Throws what recordUpliftedIdentity would have thrown for this request
+  public Identity getIdentity() {
+    if (failure != null) {
+      throw failure;
+    }
+    return identity;
+  }
+}
@@ -1,18 +1,47 @@
 package uk.gov.dwp.health.pip.identity.repository;
 
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface IdentityRepository extends CrudRepository<Identity, String> {
+public interface IdentityRepository
+    extends CrudRepository<Identity, String>, IdentityRepositoryCustom {
   Optional<Identity> findByNino(String s);
 
   Optional<Identity> findBySubjectId(String s);
 
+  List<Identity> findByNinoOrSubjectId(String nino, String subjectId);
+
+  List<Identity> findByNinoInOrSubjectIdIn(
+      Collection<String> ninos, Collection<String> subjectIds);
+
   Optional<Identity> findByApplicationID(String s);
 
   Optional<Identity> findById(String s);
+
+  // Projections only read the fields the DTO declares, for the high volume lookups.
+  // The status fields exclude _id so MongoIndexInitializer's indexes can cover the query
+
+  String STATUS_FIELDS = "{ 'nino' : 1, 'vot' : 1, 'idvStatus' : 1, '_id' : 0 }";
+
+  @Query(value = "{ 'nino' : ?0 }", fields = STATUS_FIELDS)
+  Optional<IdentityStatus> findStatusByNino(String nino);
+
+  @Query(value = "{ 'subjectId' : ?0 }", fields = STATUS_FIELDS)
+  Optional<IdentityStatus> findStatusBySubjectId(String subjectId);
+
+  @Query(value = "{ 'nino' : { '$in' : ?0 } }", fields = STATUS_FIELDS)
+  List<IdentityStatus> findStatusByNinoIn(Collection<String> ninos);
+
+  Optional<IdentitySummary> findSummaryByApplicationID(String applicationId);
+
+  Optional<IdentitySummary> findSummaryById(String id);
 }
@@ -0,0 +1,34 @@
+package uk.gov.dwp.health.pip.identity.repository;
+
+import java.util.List;
+import java.util.Optional;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.AppliedChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityKeyInformation;
+
+public interface IdentityRepositoryCustom {
+
+  /**
+   * Applies the fields that differ between {@code current} and {@code updated} in a single
+   * findAndModify, provided the stored record's key information is still that of {@code current}
+   * and differs from {@code key}.
+   *
+   * @return the record as stored after the update, or empty if the key information has changed
+   *     since {@code current} was read, already matched, or the record no longer exists
+   */
+  Optional<Identity> updateIfKeyInformationChanged(
+      Identity current, Identity updated, IdentityKeyInformation key);
+
+  /**
+   * Writes every change in one unordered bulkWrite. Inserts are given their id up front and
+   * updates carry the same key information condition as {@link #updateIfKeyInformationChanged}.
+   *
+   * <p>A failed operation does not stop the others, so each change is reported on its own: {@code
+   * WRITTEN} with the record as stored, {@code FAILED} with the write error, or {@code
+   * NOT_APPLIED} for an update whose condition no longer matched and needs planning again.
+   *
+   * @return the outcome of each change, in the order of {@code changes}
+   */
+  List<AppliedChange> applyChanges(List<IdentityChange> changes);
+}
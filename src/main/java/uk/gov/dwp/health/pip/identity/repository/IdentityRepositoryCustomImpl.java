@@ -0,0 +1,216 @@
+package uk.gov.dwp.health.pip.identity.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.AppliedChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityKeyInformation;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class IdentityRepositoryCustomImpl implements IdentityRepositoryCustom {
+
+  private static final String COLLECTION = "identity";
+  private static final String ID = "_id";
+  private static final String SUBJECT_ID = "subjectId";
+  private static final String NINO = "nino";
+  private static final String VOT = "vot";
+  private static final String IDV_STATUS = "idvStatus";
+  private static final int DUPLICATE_KEY = 11000;
+
+  private final MongoTemplate mongoTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Override
+  public Optional<Identity> updateIfKeyInformationChanged(
+      Identity current, Identity updated, IdentityKeyInformation key) {
+    final Query query = keyInformationChangedQuery(current, key);
+    final Update update = changedFields(current, updated);
+    if (update.getUpdateObject().isEmpty()) {
+      return Optional.ofNullable(mongoTemplate.findOne(query, Identity.class));
+    }
+    return Optional.ofNullable(
+        mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), Identity.class));
+  }
+
+  @Override
+  public List<AppliedChange> applyChanges(List<IdentityChange> changes) {
+    final BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Identity.class);
+    // The change each bulk operation was queued for, by operation index
+    final List<Integer> operations = new ArrayList<>();
+    final AppliedChange[] applied = new AppliedChange[changes.size()];
+    int updates = 0;
+    for (int i = 0; i < changes.size(); i++) {
+      final IdentityChange change = changes.get(i);
+      final Identity updated = change.getUpdated();
+      if (change.isInsert()) {
+        updated.setId(new ObjectId().toHexString());
+        bulk.insert(updated);
+        operations.add(i);
+        applied[i] = AppliedChange.written(updated);
+      } else {
+        final Update update = changedFields(change.getCurrent(), updated);
+        if (update.getUpdateObject().isEmpty()) {
+          applied[i] = AppliedChange.notApplied();
+        } else {
+          bulk.updateOne(keyInformationChangedQuery(change.getCurrent(), change.getKey()), update);
+          operations.add(i);
+          applied[i] = AppliedChange.written(updated);
+          updates++;
+        }
+      }
+    }
+    if (operations.isEmpty()) {
+      return Arrays.asList(applied);
+    }
+
+    BulkWriteResult result;
+    try {
+      result = bulk.execute();
+    } catch (BulkOperationException e) {
+      // Unordered, so every operation without an error of its own was still applied
+      result = e.getResult();
+      for (BulkWriteError error : e.getErrors()) {
+        applied[operations.get(error.getIndex())] = AppliedChange.failed(writeFailure(error));
+      }
+    }
+    final int failedUpdates =
+        (int)
+            operations.stream()
+                .filter(i -> !changes.get(i).isInsert())
+                .filter(i -> applied[i].getStatus() == AppliedChange.Status.FAILED)
+                .count();
+    if (result.getMatchedCount() < updates - failedUpdates) {
+      markUpdatesNotApplied(changes, applied);
+    }
+    return Arrays.asList(applied);
+  }
+
+  // The bulk result only counts matches, so find which updates did not land by reading back
+  // whether each record now holds every field its update wrote
+  private void markUpdatesNotApplied(List<IdentityChange> changes, AppliedChange[] applied) {
+    final List<String> ids = new ArrayList<>();
+    for (int i = 0; i < changes.size(); i++) {
+      if (!changes.get(i).isInsert() && applied[i].getStatus() == AppliedChange.Status.WRITTEN) {
+        ids.add(changes.get(i).getCurrent().getId());
+      }
+    }
+    final Map<String, Identity> stored =
+        mongoTemplate.find(new Query(where(ID).in(ids)), Identity.class).stream()
+            .collect(Collectors.toMap(Identity::getId, Function.identity()));
+    for (int i = 0; i < changes.size(); i++) {
+      final IdentityChange change = changes.get(i);
+      if (change.isInsert() || applied[i].getStatus() != AppliedChange.Status.WRITTEN) {
+        continue;
+      }
+      final Identity record = stored.get(change.getCurrent().getId());
+      if (record == null || !diff(record, change.getUpdated()).getUpdateObject().isEmpty()) {
+        log.warn("Bulk update of identity {} did not match", change.getCurrent().getId());
+        applied[i] = AppliedChange.notApplied();
+      }
+    }
+  }
+
+  private static RuntimeException writeFailure(BulkWriteError error) {
+    final String message = "Identity write failed: " + error.getMessage();
+    return error.getCode() == DUPLICATE_KEY
+        ? new DuplicateKeyException(message)
+        : new UncategorizedMongoDbException(message, null);
+  }
+
+  // Matches only while the record still holds the key information the update was computed from,
+  // so two consumers applying different outcomes cannot overwrite each other
+  private static Query keyInformationChangedQuery(Identity current, IdentityKeyInformation key) {
+    return new Query(
+        where(ID)
+            .is(current.getId())
+            .andOperator(keyInformationMatches(keyInformationOf(current)))
+            .norOperator(keyInformationMatches(key)));
+  }
+
+  private static IdentityKeyInformation keyInformationOf(Identity identity) {
+    return IdentityKeyInformation.of(
+        identity.getSubjectId(),
+        identity.getNino(),
+        identity.getVot() == null ? "" : identity.getVot(),
+        identity.getIdvStatus());
+  }
+
+  private static Criteria keyInformationMatches(IdentityKeyInformation key) {
+    final Criteria vot =
+        StringUtils.isEmpty(key.getVot())
+            ? where(VOT).in(null, "")
+            : where(VOT).is(key.getVot());
+    return new Criteria()
+        .andOperator(
+            where(SUBJECT_ID).is(key.getSubjectId()),
+            where(NINO).is(key.getNino()),
+            where(IDV_STATUS).is(key.getIdvStatus()),
+            vot);
+  }
+
+  private Update changedFields(Identity current, Identity updated) {
+    final Update update = diff(current, updated);
+    if (update.getUpdateObject().isEmpty()) {
+      return update;
+    }
+    // Gives MongoEventListenerPipIdentity the same chance to tag the record as a save() would,
+    // only for a write that will happen, then takes its changes into the diff
+    eventPublisher.publishEvent(new BeforeConvertEvent<>(updated, COLLECTION));
+    return diff(current, updated);
+  }
+
+  private Update diff(Identity current, Identity updated) {
+    final Document currentDocument = toDocument(current);
+    final Document updatedDocument = toDocument(updated);
+
+    final Update update = new Update();
+    updatedDocument.forEach(
+        (field, value) -> {
+          if (!ID.equals(field) && !Objects.equals(currentDocument.get(field), value)) {
+            update.set(field, value);
+          }
+        });
+    currentDocument.keySet().stream()
+        .filter(field -> !updatedDocument.containsKey(field))
+        .forEach(update::unset);
+    return update;
+  }
+
+  private Document toDocument(Identity identity) {
+    final Document document = new Document();
+    mongoTemplate.getConverter().write(identity, document);
+    return document;
+  }
+}
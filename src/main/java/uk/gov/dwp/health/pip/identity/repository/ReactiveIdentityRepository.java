@@ -0,0 +1,11 @@
+package uk.gov.dwp.health.pip.identity.repository;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@Repository
+public interface ReactiveIdentityRepository extends ReactiveCrudRepository<Identity, String> {
+  Mono<Identity> findBySubjectId(String s);
+}
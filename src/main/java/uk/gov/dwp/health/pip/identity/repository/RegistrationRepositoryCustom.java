@@ -2,7 +2,13 @@ package uk.gov.dwp.health.pip.identity.repository;
 
 public interface RegistrationRepositoryCustom {
 
+  int getRegistrationCount();
+
   void incrementRegistrationCount();
 
+  void incrementRegistrationCount(long registrations);
+
   void resetRegistrationCount();
+
+  long consolidateRegistrationCounts();
 }
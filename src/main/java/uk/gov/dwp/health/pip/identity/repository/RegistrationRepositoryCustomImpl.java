@@ -8,21 +8,34 @@ import org.springframework.stereotype.Repository;
 import uk.gov.dwp.health.pip.identity.entity.Registration;
 
 import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static uk.gov.dwp.health.pip.identity.entity.Registration.COUNTER_ID;
 
 @Repository
 @RequiredArgsConstructor
 public class RegistrationRepositoryCustomImpl implements RegistrationRepositoryCustom {
 
+  private static final String ID = "_id";
   private static final String COUNT = "count";
 
   private final MongoTemplate mongoTemplate;
 
+  @Override
+  public int getRegistrationCount() {
+    final Registration registration = mongoTemplate.findById(COUNTER_ID, Registration.class);
+    return registration == null ? 0 : registration.getCount();
+  }
+
   @Override
   public void incrementRegistrationCount() {
+    incrementRegistrationCount(1);
+  }
+
+  @Override
+  public void incrementRegistrationCount(long registrations) {
     mongoTemplate
         .update(Registration.class)
-        .matching(new Query(where(COUNT).exists(true)))
-        .apply(new Update().inc(COUNT, 1))
+        .matching(counterQuery())
+        .apply(new Update().inc(COUNT, Math.toIntExact(registrations)))
         .upsert();
   }
 
@@ -30,8 +43,54 @@ public class RegistrationRepositoryCustomImpl implements RegistrationRepositoryC
   public void resetRegistrationCount() {
     mongoTemplate
         .update(Registration.class)
-        .matching(new Query(where(COUNT).exists(true)))
+        .matching(counterQuery())
         .apply(new Update().set(COUNT, 0))
         .upsert();
   }
+
+  // Folds the document written before the fixed _id into the counter document and removes the
+  // rest. The first legacy document in natural order is the one the old release reads and, while
+  // it exists, the only one it increments, so the others are stray and dropped first
+  @Override
+  public long consolidateRegistrationCounts() {
+    final Registration primary = mongoTemplate.findOne(legacyQuery(), Registration.class);
+    if (primary == null) {
+      return 0;
+    }
+    final long strays =
+        mongoTemplate
+            .remove(
+                new Query(where(ID).nin(COUNTER_ID, primary.getId())), Registration.class)
+            .getDeletedCount();
+    return strays + (foldIntoCounter(primary) ? 1 : 0);
+  }
+
+  // Pods still on the old release keep incrementing the legacy document during a rolling deploy.
+  // Its count is added to the counter first and the document is only removed while it still holds
+  // the count added, otherwise the difference is added and the removal tried again. A pod that
+  // loses the removal to another takes its contribution back out.
+  private boolean foldIntoCounter(Registration legacy) {
+    long contributed = 0;
+    Registration current = legacy;
+    while (current != null) {
+      incrementRegistrationCount(current.getCount() - contributed);
+      contributed = current.getCount();
+      final Query unchanged =
+          new Query(where(ID).is(current.getId()).and(COUNT).is(current.getCount()));
+      if (mongoTemplate.remove(unchanged, Registration.class).getDeletedCount() > 0) {
+        return true;
+      }
+      current = mongoTemplate.findById(legacy.getId(), Registration.class);
+    }
+    incrementRegistrationCount(-contributed);
+    return false;
+  }
+
+  private static Query legacyQuery() {
+    return new Query(where(ID).ne(COUNTER_ID));
+  }
+
+  private static Query counterQuery() {
+    return new Query(where(ID).is(COUNTER_ID));
+  }
 }
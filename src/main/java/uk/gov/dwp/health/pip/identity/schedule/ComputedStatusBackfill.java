@@ -0,0 +1,91 @@
+package uk.gov.dwp.health.pip.identity.schedule;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.dwp.health.pip.identity.config.properties.ComputedStatusBackfillProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
+
+@RequiredArgsConstructor
+@Service
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.computed-status-backfill",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+class ComputedStatusBackfill {
+
+  private static final String ID = "_id";
+  private static final String COMPUTED_STATUS = "computedStatus";
+  private static final String VOT = "vot";
+  private static final String IDV_STATUS = "idvStatus";
+  private static final String NINO = "nino";
+
+  private final MongoTemplate mongoTemplate;
+  private final ComputedStatusBackfillProperties properties;
+
+  // Progress lives in the documents themselves, so a restarted or concurrent run resumes safely.
+  // Runs for the life of the process, as saves from a pod on an older release can still strip
+  // computedStatus during a rolling deploy. One page per run keeps each run short on the shared
+  // scheduler thread, and once nothing is pending a run is a single computedStatus index probe.
+  @Scheduled(
+      initialDelayString = "${uk.gov.dwp.identity.computed-status-backfill.initial-delay:30000}",
+      fixedDelayString = "${uk.gov.dwp.identity.computed-status-backfill.interval:60000}")
+  void backfillComputedStatus() {
+    if (!mongoTemplate.exists(new Query(where(COMPUTED_STATUS).exists(false)), Identity.class)) {
+      return;
+    }
+    final List<Identity> pending = mongoTemplate.find(pendingQuery(), Identity.class);
+    if (pending.isEmpty()) {
+      return;
+    }
+    final int updated = applyComputedStatus(pending);
+    log.info(
+        "Computed status backfill updated {} of {} pending identities", updated, pending.size());
+  }
+
+  private Query pendingQuery() {
+    final Query query =
+        new Query(where(COMPUTED_STATUS).exists(false))
+            .with(Sort.by(Sort.Direction.ASC, ID))
+            .limit(properties.getBatchSize());
+    query.fields().include(VOT, IDV_STATUS, NINO);
+    return query;
+  }
+
+  // Only writes if the status inputs are unchanged, so a concurrent save is never overwritten
+  private int applyComputedStatus(List<Identity> pending) {
+    final BulkOperations bulk =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Identity.class);
+    for (Identity identity : pending) {
+      final Query unchanged =
+          new Query(
+              where(ID)
+                  .is(identity.getId())
+                  .and(COMPUTED_STATUS)
+                  .exists(false)
+                  .and(VOT)
+                  .is(identity.getVot())
+                  .and(IDV_STATUS)
+                  .is(identity.getIdvStatus())
+                  .and(NINO)
+                  .is(identity.getNino()));
+      bulk.updateOne(
+          unchanged,
+          new Update().set(COMPUTED_STATUS, IdentityStatusCalculator.fromIdentity(identity)));
+    }
+    return bulk.execute().getModifiedCount();
+  }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+import uk.gov.dwp.health.pip.identity.service.RegistrationsLimiterGetter;
 
 @RequiredArgsConstructor
 @Service
@@ -12,12 +13,14 @@ import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
 class RegistrationsCountResetter {
 
   private final RegistrationRepository registrationRepository;
+  private final RegistrationsLimiterGetter registrationsLimiterGetter;
 
   @Scheduled(cron = "${schedule.reset.registrations.count:0 0 0 * * WED}")
   void resetRegistrationsCount() {
     log.info("Running scheduled task to reset registrations count");
 
     registrationRepository.resetRegistrationCount();
+    registrationsLimiterGetter.evictRegistrationsCount();
 
     log.info("Finished scheduled task to reset registrations count");
   }
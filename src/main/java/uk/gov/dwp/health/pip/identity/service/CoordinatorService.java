@@ -1,6 +1,10 @@
 package uk.gov.dwp.health.pip.identity.service;
 
+import uk.gov.dwp.health.pip.identity.model.ApplicationRouting;
+
 public interface CoordinatorService {
+  ApplicationRouting resolveRouting(final String applicationId);
+
   boolean isPipcsApplication(final String applicationId);
 
   boolean isPipServiceApplication(final String applicationId);
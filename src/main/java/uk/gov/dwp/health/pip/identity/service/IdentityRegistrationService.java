@@ -1,9 +1,9 @@
 package uk.gov.dwp.health.pip.identity.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import uk.gov.dwp.health.identity.status.openapi.model.IdentityResponse2;
@@ -19,55 +19,74 @@ import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
 import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
 import uk.gov.dwp.health.pip.identity.model.TokenPayload;
 import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
-import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
 import uk.gov.dwp.health.pip.identity.service.impl.IdentityBuilder;
+import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
 import uk.gov.dwp.health.pip.identity.webclient.AccountManagerWebClient;
 import uk.gov.dwp.health.pip.identity.webclient.GuidServiceClient;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.UNVERIFIED;
 import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.VERIFIED;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class IdentityRegistrationService {
 
   private final IdentityRepository repository;
   private final AccountManagerWebClient accountManagerWebClient;
-  private final ObjectMapper objectMapper;
+  private final ObjectReader tokenPayloadReader;
   private final Validator validator;
   // These two publishers route the data to pipcs via a nino lookup then an app id lookup
   private final PipIdentityGuidEventPublisher ninoLookupPublisher;
   private final PipIdvOutcomeMessagePublisher applicationIdLookupPublisher;
-  private final RegistrationRepository registrationRepository;
+  private final RegistrationCounter registrationCounter;
   private final GuidServiceClient guidServiceClient;
 
+  public IdentityRegistrationService(
+      final IdentityRepository repository,
+      final AccountManagerWebClient accountManagerWebClient,
+      final ObjectMapper objectMapper,
+      final Validator validator,
+      final PipIdentityGuidEventPublisher ninoLookupPublisher,
+      final PipIdvOutcomeMessagePublisher applicationIdLookupPublisher,
+      final RegistrationCounter registrationCounter,
+      final GuidServiceClient guidServiceClient
+  ) {
+    this.repository = repository;
+    this.accountManagerWebClient = accountManagerWebClient;
+    this.tokenPayloadReader = objectMapper.readerFor(TokenPayload.class);
+    this.validator = validator;
+    this.ninoLookupPublisher = ninoLookupPublisher;
+    this.applicationIdLookupPublisher = applicationIdLookupPublisher;
+    this.registrationCounter = registrationCounter;
+    this.guidServiceClient = guidServiceClient;
+  }
+
   public IdentityResponseDto register(
       final String payload, final String channel, final Boolean publishObject
+  ) {
+    return register(payload.getBytes(StandardCharsets.UTF_8), channel, publishObject);
+  }
+
+  public IdentityResponseDto register(
+      final byte[] payload, final String channel, final Boolean publishObject
   ) {
     final boolean publish = publishObject != null && publishObject;
-    final TokenPayload tokenPayload = parsePayload(payload);
-    validate(tokenPayload);
+    final TokenPayload tokenPayload = readTokenPayload(payload);
     final String guid = tokenPayload.getGuid();
-    if (isBlank(guid)) {
-      missingGuidException();
-    }
     final Optional<Identity> identityOptional = repository.findBySubjectId(tokenPayload.getSub());
     final boolean isNewIdentity = identityOptional.isEmpty();
 
     if (publish) {
-      if (isNewIdentity || isBlank(identityOptional.get().getNino())) {
-        log.info("GUID Present for token - publishing to SNS topic");
-        ninoLookupPublisher.publish(tokenPayload);
-      } else {
-        applicationIdLookupPublisher.publish(identityOptional.get(), tokenPayload);
-      }
+      publish(tokenPayload, identityOptional);
       return null;
     } else {
       final var sub = tokenPayload.getSub();
@@ -78,12 +97,18 @@ public class IdentityRegistrationService {
           return getIdentityResponseDto(identityOptional.get(), false);
         }
       }
+      final boolean isNinoLookupRequired =
+          isNewIdentity || isBlank(identityOptional.get().getNino());
+      // The NINO lookup does not depend on the account check, so start it first and let both
+      // calls run together; an existing account still wins over the lookup result
+      final CompletableFuture<IdentifierDto> ninoLookup =
+          isNinoLookupRequired ? guidServiceClient.getNinoFromGuidAsync(guid).toFuture() : null;
       if (accountExistsForEmail(sub)) {
         unexpectedAccountRecordException();
       }
       String nino = null;
-      if (isNewIdentity || isBlank(identityOptional.get().getNino())) {
-        final IdentifierDto ninoFromLookup = guidServiceClient.getNinoFromGuid(guid);
+      if (isNinoLookupRequired) {
+        final IdentifierDto ninoFromLookup = awaitNinoLookup(ninoLookup);
         nino = ninoFromLookup.getIdentifier();
       }
       Identity identity;
@@ -103,6 +128,24 @@ public class IdentityRegistrationService {
     }
   }
 
+  TokenPayload readTokenPayload(final byte[] payload) {
+    final TokenPayload tokenPayload = parsePayload(payload);
+    validate(tokenPayload);
+    if (isBlank(tokenPayload.getGuid())) {
+      missingGuidException();
+    }
+    return tokenPayload;
+  }
+
+  void publish(final TokenPayload tokenPayload, final Optional<Identity> identityOptional) {
+    if (identityOptional.isEmpty() || isBlank(identityOptional.get().getNino())) {
+      log.info("GUID Present for token - publishing to SNS topic");
+      ninoLookupPublisher.publish(tokenPayload);
+    } else {
+      applicationIdLookupPublisher.publish(identityOptional.get(), tokenPayload);
+    }
+  }
+
   private void validate(final TokenPayload tokenPayload) {
     final Set<ConstraintViolation<TokenPayload>> violations = validator.validate(tokenPayload);
     if (!violations.isEmpty()) {
@@ -114,7 +157,7 @@ public class IdentityRegistrationService {
     }
   }
 
-  private IdentityResponseDto getIdentityResponseDto(
+  static IdentityResponseDto getIdentityResponseDto(
       Identity identity, boolean isCreated) {
     IdentityResponse2 identityResponse =
         new IdentityResponse2()
@@ -126,10 +169,10 @@ public class IdentityRegistrationService {
     return IdentityResponseDto.of(isCreated, identityResponse);
   }
 
-  private TokenPayload parsePayload(String payload) {
+  private TokenPayload parsePayload(byte[] payload) {
     TokenPayload tokenPayload;
     try {
-      tokenPayload = objectMapper.readValue(payload, TokenPayload.class);
+      tokenPayload = tokenPayloadReader.readValue(payload);
     } catch (Exception e) {
       log.error("Unable to parse the token {}", e.getMessage());
       throw new ValidationException("Unable to parse the token");
@@ -139,16 +182,21 @@ public class IdentityRegistrationService {
 
   private Identity updateIdentity(
       Identity identity, TokenPayload tokenPayload, String channel) {
+    return repository.save(buildUpdatedIdentity(identity, tokenPayload, channel));
+  }
+
+  static Identity buildUpdatedIdentity(
+      Identity identity, TokenPayload tokenPayload, String channel) {
 
     Identity.IdentityBuilder builder = IdentityBuilder.createBuilderFromIdentity(identity);
     builder.vot(tokenPayload.getVot() == null ? null : tokenPayload.getVot().getValue());
     builder.dateTime(LocalDateTime.now());
     builder.channel(channel);
 
-    return repository.save(builder.build());
+    return IdentityStatusCalculator.withComputedStatus(builder.build());
   }
 
-  private Identity createIdentity(TokenPayload tokenPayload, String channel, String nino) {
+  static Identity buildNewIdentity(TokenPayload tokenPayload, String channel, String nino) {
     Identity identity =
         Identity.builder()
             .identityId(UUID.randomUUID())
@@ -160,9 +208,13 @@ public class IdentityRegistrationService {
             .idvStatus(UNVERIFIED)
             .build();
 
-    Identity savedIdentity = repository.save(identity);
+    return IdentityStatusCalculator.withComputedStatus(identity);
+  }
 
-    incrementRegistrationCount();
+  private Identity createIdentity(TokenPayload tokenPayload, String channel, String nino) {
+    Identity savedIdentity = repository.save(buildNewIdentity(tokenPayload, channel, nino));
+
+    registrationCounter.increment();
 
     return savedIdentity;
   }
@@ -177,12 +229,15 @@ public class IdentityRegistrationService {
     }
   }
 
-  private void incrementRegistrationCount() {
-    log.info("About to increment registration count");
-
-    registrationRepository.incrementRegistrationCount();
-
-    log.info("Incremented registration count");
+  private static IdentifierDto awaitNinoLookup(CompletableFuture<IdentifierDto> ninoLookup) {
+    try {
+      return ninoLookup.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
   }
 
   private static void missingGuidException() {
@@ -190,12 +245,12 @@ public class IdentityRegistrationService {
     throw new IdentityNotFoundException("No GUID in token from DTH.");
   }
 
-  private static void unexpectedAccountRecordException() {
+  static void unexpectedAccountRecordException() {
     log.error("PIP Account detected for DTH route. Throwing exception");
     throw new ConflictException("Account already exists for email");
   }
 
-  private static void unexpectedMissingVotException() {
+  static void unexpectedMissingVotException() {
     log.error("No VOT in token for DTH route. Throwing exception");
     throw new IdentityNotFoundException("No VOT in token and no Identity found for sub");
   }
@@ -2,23 +2,50 @@ package uk.gov.dwp.health.pip.identity.service;
 
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 import uk.gov.dwp.health.pip.identity.model.IdvAgentUpliftOutcome;
+import uk.gov.dwp.health.pip.identity.model.UpliftOutcome;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IdentityService {
 
   Identity recordUpliftedIdentity(IdentityRequestUpdateSchemaV1 request);
 
+  // Batch mode: the records each request could change, read for the whole batch at once
+  List<List<Identity>> findUpliftCandidates(List<IdentityRequestUpdateSchemaV1> requests);
+
+  // Batch mode: the change one request makes to the records read for it, planned by the caller
+  IdentityChange planUpliftedIdentity(
+      IdentityRequestUpdateSchemaV1 request, List<Identity> candidates);
+
+  // Batch mode: planned changes written with one bulk write, one outcome per change
+  List<UpliftOutcome> applyUpliftChanges(List<IdentityChange> changes);
+
   Optional<Identity> getIdentityBySubjectId(String subjectId);
 
   Optional<Identity> getIdentityByNino(String nino);
 
+  Optional<IdentityStatus> getIdentityStatusBySubjectId(String subjectId);
+
+  Optional<IdentityStatus> getIdentityStatusByNino(String nino);
+
+  Map<String, String> getIdvStatusByNinos(Collection<String> ninos);
+
   Optional<Identity> getIdentityByApplicationId(String applicationId);
 
   Optional<Identity> getIdentityById(String id);
 
+  Optional<IdentitySummary> getIdentitySummaryByApplicationId(String applicationId);
+
+  Optional<IdentitySummary> getIdentitySummaryById(String id);
+
   void updateApplicationId(String identityId, String applicationId);
 
   IdvAgentUpliftOutcome upliftIdentityStatusByAgent(String applicationId, UpliftDto upliftDto);
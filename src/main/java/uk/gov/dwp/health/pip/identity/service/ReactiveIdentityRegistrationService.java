@@ -0,0 +1,125 @@
+package uk.gov.dwp.health.pip.identity.service;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService.buildNewIdentity;
+import static uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService.buildUpdatedIdentity;
+import static uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService.getIdentityResponseDto;
+import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.UNVERIFIED;
+
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
+import uk.gov.dwp.health.pip.identity.model.TokenPayload;
+import uk.gov.dwp.health.pip.identity.repository.ReactiveIdentityRepository;
+import uk.gov.dwp.health.pip.identity.webclient.AccountManagerWebClient;
+import uk.gov.dwp.health.pip.identity.webclient.GuidServiceClient;
+
+/**
+ * The register flow of {@link IdentityRegistrationService} composed as a single {@link Mono}, so
+ * the Mongo, account manager and GUID service calls of a registration hold no thread while they
+ * wait. Publishing still goes through the event publishers, and a registration count flush
+ * through the blocking repository, on a bounded elastic thread.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.identity.reactive-register",
+    name = "enabled",
+    havingValue = "true")
+public class ReactiveIdentityRegistrationService {
+
+  private final ReactiveIdentityRepository repository;
+  private final IdentityRegistrationService registrationService;
+  private final AccountManagerWebClient accountManagerWebClient;
+  private final GuidServiceClient guidServiceClient;
+  private final RegistrationCounter registrationCounter;
+
+  public Mono<IdentityResponseDto> register(
+      final byte[] payload, final String channel, final Boolean publishObject) {
+    final boolean publish = publishObject != null && publishObject;
+    return Mono.fromCallable(() -> registrationService.readTokenPayload(payload))
+        .flatMap(
+            tokenPayload ->
+                repository
+                    .findBySubjectId(tokenPayload.getSub())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(
+                        identityOptional ->
+                            publish
+                                ? publish(tokenPayload, identityOptional)
+                                : register(tokenPayload, channel, identityOptional)));
+  }
+
+  private Mono<IdentityResponseDto> publish(
+      TokenPayload tokenPayload, Optional<Identity> identityOptional) {
+    return Mono.fromRunnable(() -> registrationService.publish(tokenPayload, identityOptional))
+        .subscribeOn(Schedulers.boundedElastic())
+        .then(Mono.empty());
+  }
+
+  private Mono<IdentityResponseDto> register(
+      TokenPayload tokenPayload, String channel, Optional<Identity> identityOptional) {
+    if (tokenPayload.getVot() == null) {
+      return identityOptional
+          .map(identity -> Mono.just(getIdentityResponseDto(identity, false)))
+          .orElseGet(
+              () ->
+                  Mono.<IdentityResponseDto>fromRunnable(
+                      IdentityRegistrationService::unexpectedMissingVotException));
+    }
+    final boolean isNinoLookupRequired =
+        identityOptional.isEmpty() || isBlank(identityOptional.get().getNino());
+    final Mono<String> ninoLookup =
+        isNinoLookupRequired
+            ? guidServiceClient
+                .getNinoFromGuidAsync(tokenPayload.getGuid())
+                .map(IdentifierDto::getIdentifier)
+            : Mono.empty();
+    // Both calls run together; materialize holds back a failed lookup so an existing account
+    // still wins over the lookup result, as on the blocking path
+    return Mono.zip(
+            accountManagerWebClient.getAccountDetailsFromEmailAsync(tokenPayload.getSub())
+                .hasElement(),
+            ninoLookup.materialize())
+        .flatMap(
+            results -> {
+              if (Boolean.TRUE.equals(results.getT1())) {
+                return Mono.<IdentityResponseDto>fromRunnable(
+                    IdentityRegistrationService::unexpectedAccountRecordException);
+              }
+              final Signal<String> nino = results.getT2();
+              if (nino.isOnError()) {
+                return Mono.error(nino.getThrowable());
+              }
+              return save(tokenPayload, channel, identityOptional, nino.get());
+            });
+  }
+
+  private Mono<IdentityResponseDto> save(
+      TokenPayload tokenPayload, String channel, Optional<Identity> identityOptional, String nino) {
+    if (identityOptional.isEmpty()) {
+      return repository
+          .save(buildNewIdentity(tokenPayload, channel, nino))
+          .flatMap(saved -> registrationCounter.incrementAsync().thenReturn(saved))
+          .map(saved -> getIdentityResponseDto(saved, true));
+    }
+    final Identity identity = identityOptional.get();
+    if (isBlank(identity.getNino())) {
+      identity.setNino(nino);
+      if (identity.getIdvStatus() == null) {
+        identity.setIdvStatus(UNVERIFIED);
+      }
+    }
+    return repository
+        .save(buildUpdatedIdentity(identity, tokenPayload, channel))
+        .map(saved -> getIdentityResponseDto(saved, false));
+  }
+}
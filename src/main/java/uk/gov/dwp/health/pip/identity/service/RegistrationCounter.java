@@ -0,0 +1,99 @@
+package uk.gov.dwp.health.pip.identity.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.dwp.health.pip.identity.config.properties.RegistrationCounterProperties;
+import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+
+/**
+ * Accumulates new account registrations in memory and adds them to the shared registration count
+ * in one $inc, rather than writing the single registration document on every registration.
+ */
+@Service
+@Slf4j
+public class RegistrationCounter {
+
+  private final RegistrationRepository registrationRepository;
+  private final RegistrationCounterProperties properties;
+  private final LongAdder unflushed = new LongAdder();
+
+  public RegistrationCounter(
+      RegistrationRepository registrationRepository,
+      RegistrationCounterProperties properties,
+      MeterRegistry meterRegistry) {
+    this.registrationRepository = registrationRepository;
+    this.properties = properties;
+    Gauge.builder("identity.registration.count.unflushed", unflushed, LongAdder::sum)
+        .register(meterRegistry);
+  }
+
+  public void increment() {
+    if (incrementAndCheckFull()) {
+      flushFull();
+    }
+  }
+
+  /**
+   * As {@link #increment()}, but a flush triggered by reaching {@code maxUnflushed} runs on a
+   * bounded elastic thread so a reactive caller never waits on Mongo inline.
+   */
+  public Mono<Void> incrementAsync() {
+    return Mono.defer(
+        () ->
+            incrementAndCheckFull()
+                ? Mono.fromRunnable(this::flushFull).subscribeOn(Schedulers.boundedElastic())
+                : Mono.empty())
+        .then();
+  }
+
+  private boolean incrementAndCheckFull() {
+    unflushed.increment();
+    return unflushed.sum() >= properties.getMaxUnflushed();
+  }
+
+  private void flushFull() {
+    log.info("Unflushed registrations reached {}, flushing", properties.getMaxUnflushed());
+    flush();
+  }
+
+  @Scheduled(fixedDelayString = "${uk.gov.dwp.identity.registration-counter.flush-interval:1000}")
+  public void scheduledFlush() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      log.error("Unable to flush registration count, will retry: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    log.info("Flushing registration count before shutdown");
+    flush();
+  }
+
+  long getUnflushed() {
+    return unflushed.sum();
+  }
+
+  private void flush() {
+    final long count = unflushed.sumThenReset();
+    if (count == 0) {
+      return;
+    }
+    try {
+      registrationRepository.incrementRegistrationCount(count);
+      log.info("Incremented registration count by {}", count);
+    } catch (RuntimeException e) {
+      // Put the registrations back so the next flush includes them
+      unflushed.add(count);
+      throw e;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package uk.gov.dwp.health.pip.identity.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import uk.gov.dwp.health.pip.identity.config.properties.ApplicationProperties;
@@ -11,18 +12,31 @@ import uk.gov.dwp.health.identity.status.openapi.model.RegistrationsLimiterDto;
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 
-@RequiredArgsConstructor
 @Service
 @Slf4j
 public class RegistrationsLimiterGetter {
 
+  private static final String REGISTRATIONS_COUNT = "registrationsCount";
+
   private final ApplicationProperties applicationProperties;
   private final RegistrationRepository registrationRepository;
+  private final Cache<String, Integer> registrationsCountCache;
+
+  public RegistrationsLimiterGetter(
+      ApplicationProperties applicationProperties,
+      RegistrationRepository registrationRepository) {
+    this.applicationProperties = applicationProperties;
+    this.registrationRepository = registrationRepository;
+    this.registrationsCountCache = Caffeine.newBuilder()
+        .expireAfterWrite(applicationProperties.getRegistrationsCountCacheTtl())
+        .build();
+  }
 
   public RegistrationsLimiterDto getRegistrationsLimiter() {
     log.info("About to check if registrations limit has been reached");
 
-    int registrationsCount = getRegistrationsCount();
+    int registrationsCount =
+        registrationsCountCache.get(REGISTRATIONS_COUNT, key -> getRegistrationsCount());
 
     int registrationsLimit = getRegistrationsLimit();
 
@@ -31,17 +45,14 @@ public class RegistrationsLimiterGetter {
     return toDto(registrationsCount, registrationsLimit);
   }
 
-  private int getRegistrationsCount() {
-    int registrationsCount;
-
-    var registrations = registrationRepository.findAll();
-    if (registrations.isEmpty()) {
-      registrationsCount = 0;
-    } else {
-      registrationsCount = registrations.get(0).getCount();
-    }
+  // Called when the registration count is known to have changed, e.g. reset or change stream
+  public void evictRegistrationsCount() {
+    log.debug("Evicting cached registrations count");
+    registrationsCountCache.invalidateAll();
+  }
 
-    return registrationsCount;
+  private int getRegistrationsCount() {
+    return registrationRepository.getRegistrationCount();
   }
 
   private int getRegistrationsLimit() {
@@ -5,9 +5,23 @@ import static uk.gov.dwp.health.pip.identity.constants.Constants.CLIENT_ID;
 import static uk.gov.dwp.health.pip.identity.constants.Constants.CORRELATION_ID;
 import static uk.gov.dwp.health.pip.identity.constants.Constants.GRANT_TYPE;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -17,15 +31,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
 import uk.gov.dwp.health.pip.identity.model.CognitoToken;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class CognitoService {
 
   private final RestTemplate restTemplate;
+  private final Clock clock;
+  private final Executor refreshExecutor;
+  private final Counter tokenHits;
+  private final Counter tokenRefreshes;
+  private final Counter tokenFailures;
+
+  // Holds the last token issued along with the instant it stops being usable
+  private final AtomicReference<CachedToken> cachedToken = new AtomicReference<>();
+  // Shared by every caller waiting on a new token, so a rollover makes one request
+  private final AtomicReference<CompletableFuture<CachedToken>> inFlightRefresh =
+      new AtomicReference<>();
 
   @Value("#{${uk.gov.dwp.guid.service.guid-credentials}.client_id}")
   private String cognitoClientID;
@@ -39,7 +64,117 @@ public class CognitoService {
   @Value("${uk.gov.dwp.integration-gateway.base-url}")
   private String integrationGatewayBaseUrl;
 
+  @Value("${uk.gov.dwp.auth.token.refresh-before-expiry-seconds:60}")
+  private long refreshBeforeExpirySeconds = 60;
+
+  @Autowired
+  public CognitoService(RestTemplate restTemplate, MeterRegistry meterRegistry) {
+    this(
+        restTemplate,
+        meterRegistry,
+        Clock.systemUTC(),
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "cognito-token-refresh");
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  CognitoService(
+      RestTemplate restTemplate, MeterRegistry meterRegistry, Clock clock, Executor executor) {
+    this.restTemplate = restTemplate;
+    this.clock = clock;
+    this.refreshExecutor = executor;
+    this.tokenHits = meterRegistry.counter("identity.cognito.token.hits");
+    this.tokenRefreshes = meterRegistry.counter("identity.cognito.token.refreshes");
+    this.tokenFailures = meterRegistry.counter("identity.cognito.token.failures");
+  }
+
   public CognitoToken getCognitoToken() {
+    final CognitoToken cached = usableCachedToken();
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      return refresh(Runnable::run).join().token();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * The cached token when it is still usable, otherwise a token fetched on the refresh thread, so
+   * a reactive caller never blocks while a cold or expired token is requested.
+   */
+  public Mono<CognitoToken> getCognitoTokenAsync() {
+    return Mono.defer(
+        () -> {
+          final CognitoToken cached = usableCachedToken();
+          if (cached != null) {
+            return Mono.just(cached);
+          }
+          // The refresh is shared with other waiters, so one cancelled caller must not cancel it
+          return Mono.fromFuture(refresh(refreshExecutor), true).map(CachedToken::token);
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (refreshExecutor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+  }
+
+  // Starts a background refresh when the cached token is close to expiry
+  private CognitoToken usableCachedToken() {
+    final Instant now = clock.instant();
+    final CachedToken current = cachedToken.get();
+    if (current == null || !now.isBefore(current.expiresAt())) {
+      return null;
+    }
+    tokenHits.increment();
+    if (!now.isBefore(current.refreshAt())) {
+      log.debug("Cognito token close to expiry, refreshing in the background");
+      refresh(refreshExecutor);
+    }
+    return current.token();
+  }
+
+  private CompletableFuture<CachedToken> refresh(Executor executor) {
+    final CompletableFuture<CachedToken> refresh = new CompletableFuture<>();
+    final CompletableFuture<CachedToken> existing =
+        inFlightRefresh.compareAndExchange(null, refresh);
+    if (existing != null) {
+      return existing;
+    }
+    try {
+      executor.execute(
+          () -> {
+            try {
+              final CachedToken token = requestCognitoToken();
+              cachedToken.set(token);
+              tokenRefreshes.increment();
+              refresh.complete(token);
+            } catch (RuntimeException e) {
+              tokenFailures.increment();
+              refresh.completeExceptionally(e);
+            } finally {
+              inFlightRefresh.compareAndSet(refresh, null);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // Only happens once the refresh thread has been shut down
+      inFlightRefresh.compareAndSet(refresh, null);
+      refresh.completeExceptionally(e);
+    }
+    return refresh;
+  }
+
+  private CachedToken requestCognitoToken() {
     HttpHeaders cognitoRequestHeaders = new HttpHeaders();
     String correlationId = UUID.randomUUID().toString();
     cognitoRequestHeaders.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
@@ -54,11 +189,13 @@ public class CognitoService {
         new HttpEntity<>(cognitoRequestBody, cognitoRequestHeaders);
     log.info("Attempting to retrieve cognito token , correlation_id: {}", correlationId);
     try {
+      final Instant requestedAt = clock.instant();
       ResponseEntity<CognitoToken> response =
           restTemplate.postForEntity(
               integrationGatewayBaseUrl + authTokenServiceUrl, request, CognitoToken.class);
       log.info("Cognito Token Retrieved Successfully, correlation_id: " + correlationId);
-      return response.getBody();
+      final CognitoToken token = response.getBody();
+      return cachedToken(token, requestedAt);
     } catch (org.springframework.web.client.RestClientException restClientException) {
       log.error(
           "Client exception Calling Cognito Service, error message: "
@@ -76,4 +213,24 @@ public class CognitoService {
       throw new RuntimeException("Unknown exception calling guid service");
     }
   }
+
+  // A token without a usable expires_in is handed out once and never reused
+  private static Duration expiresIn(CognitoToken token) {
+    if (token == null) {
+      return Duration.ZERO;
+    }
+    return Duration.ofSeconds(Math.max(0, NumberUtils.toLong(token.getExpiresIn(), 0)));
+  }
+
+  // Refreshes ahead of expiry by the configured lead, but never earlier than half way through the
+  // token's lifetime, so a short lived token is still reused for part of its life
+  private CachedToken cachedToken(CognitoToken token, Instant requestedAt) {
+    final Duration lifetime = expiresIn(token);
+    final Duration refreshLead =
+        Duration.ofSeconds(Math.min(refreshBeforeExpirySeconds, lifetime.getSeconds() / 2));
+    final Instant expiresAt = requestedAt.plus(lifetime);
+    return new CachedToken(token, expiresAt.minus(refreshLead), expiresAt);
+  }
+
+  private record CachedToken(CognitoToken token, Instant refreshAt, Instant expiresAt) {}
 }
@@ -1,12 +1,15 @@
 package uk.gov.dwp.health.pip.identity.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinatorDto;
 import uk.gov.dwp.health.coordinator.openapi.v1.api.DefaultApi;
+import uk.gov.dwp.health.pip.identity.config.properties.CoordinatorClientProperties;
 import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.model.ApplicationRouting;
 import uk.gov.dwp.health.pip.identity.service.CoordinatorService;
 
 import static uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinatorDto.RoutedToEnum.PIPCS;
@@ -14,48 +17,64 @@ import static uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinator
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CoordinatorServiceImpl implements CoordinatorService {
 
   static final String UNEXPECTED_ERROR_MESSAGE = "Unexpected error calling coordinator";
 
   private final DefaultApi coordinatorClient;
 
+  private final Cache<String, ApplicationRouting> routingByApplicationId;
+
+  public CoordinatorServiceImpl(
+      final DefaultApi coordinatorClient,
+      final CoordinatorClientProperties coordinatorClientProperties
+  ) {
+    this.coordinatorClient = coordinatorClient;
+    this.routingByApplicationId = Caffeine.newBuilder()
+        .maximumSize(coordinatorClientProperties.getRoutingCacheMaxSize())
+        .expireAfterWrite(coordinatorClientProperties.getRoutingCacheTtl())
+        .build();
+  }
+
   @Override
-  public boolean isPipcsApplication(final String applicationID) {
-    try {
-      final ApplicationCoordinatorDto application = coordinatorClient.getApplication(
-          applicationID, null, null, null
-      );
-      final ApplicationCoordinatorDto.RoutedToEnum routedTo = application.getRoutedTo();
-      final boolean isPipcs = routedTo == null || PIPCS.equals(routedTo);
-      log.info("isPipcsApplication ? {}", isPipcs);
-      return isPipcs;
-    } catch (final RestClientException e) {
-      // expect and ignore 404s, just means no match for this nino
-      if (e.getMessage().startsWith("API returned 404")) {
-        return true;
-      } else {
-        log.debug(UNEXPECTED_ERROR_MESSAGE, e);
-        throw new GenericRuntimeException(UNEXPECTED_ERROR_MESSAGE);
-      }
+  public ApplicationRouting resolveRouting(final String applicationID) {
+    if (applicationID == null) {
+      return fetchRouting(null);
     }
+    return routingByApplicationId.get(applicationID, this::fetchRouting);
+  }
+
+  @Override
+  public boolean isPipcsApplication(final String applicationID) {
+    final boolean isPipcs = resolveRouting(applicationID).isPipcsApplication();
+    log.info("isPipcsApplication ? {}", isPipcs);
+    return isPipcs;
   }
 
   @Override
   public boolean isPipServiceApplication(final String applicationID) {
+    final boolean isPipService = resolveRouting(applicationID).isPipServiceApplication();
+    log.info("isPipServiceApplication ? {}", isPipService);
+    return isPipService;
+  }
+
+  private ApplicationRouting fetchRouting(final String applicationID) {
     try {
       final ApplicationCoordinatorDto application = coordinatorClient.getApplication(
           applicationID, null, null, null
       );
       final ApplicationCoordinatorDto.RoutedToEnum routedTo = application.getRoutedTo();
-      final boolean isPipService = routedTo == null || PIPSERVICE.equals(routedTo);
-      log.info("isPipServiceApplication ? {}", isPipService);
-      return isPipService;
+      if (routedTo == null) {
+        return ApplicationRouting.UNROUTED;
+      }
+      final ApplicationRouting routing =
+          ApplicationRouting.of(PIPSERVICE.equals(routedTo), PIPCS.equals(routedTo));
+      log.info("Application routing resolved {}", routing);
+      return routing;
     } catch (final RestClientException e) {
       // expect and ignore 404s, just means no match for this nino
       if (e.getMessage().startsWith("API returned 404")) {
-        return true;
+        return ApplicationRouting.UNROUTED;
       } else {
         log.debug(UNEXPECTED_ERROR_MESSAGE, e);
         throw new GenericRuntimeException(UNEXPECTED_ERROR_MESSAGE);
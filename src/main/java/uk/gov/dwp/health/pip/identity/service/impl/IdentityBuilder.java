@@ -35,6 +35,8 @@ public class IdentityBuilder {
         .nino(identity.getNino())
         .applicationID(identity.getApplicationID())
         .errorMessage(identity.getErrorMessage())
-        .vot(identity.getVot());
+        .vot(identity.getVot())
+        // Kept so an update does not drop an event the outbox relay has yet to send
+        .pendingDistribution(identity.getPendingDistribution());
   }
 }
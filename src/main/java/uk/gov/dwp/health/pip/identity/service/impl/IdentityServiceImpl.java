@@ -5,22 +5,40 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
 import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
 import uk.gov.dwp.health.pip.identity.exception.IdentityNotFoundException;
 import uk.gov.dwp.health.pip.identity.exception.NoKeyChangesToExistingRecordException;
+import uk.gov.dwp.health.pip.identity.model.AppliedChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityKeyInformation;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1.IdvOutcome;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1.Vot;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 import uk.gov.dwp.health.pip.identity.model.IdvAgentUpliftOutcome;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
+import uk.gov.dwp.health.pip.identity.model.UpliftOutcome;
 import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
 import uk.gov.dwp.health.pip.identity.service.IdentityService;
 import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
 import uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator;
 import uk.gov.dwp.health.pip.identity.webclient.ApplicationManagerWebClient;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.VERIFIED;
 
@@ -29,47 +47,197 @@ import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.VERI
 @RequiredArgsConstructor
 public class IdentityServiceImpl implements IdentityService {
 
+  private static final String NINO_RECORD_NOT_CHANGED =
+      "Key information not changed on existing NINO record";
+  private static final String SUBJECT_RECORD_NOT_CHANGED =
+      "Key information not changed on existing Subject record";
+  private static final String NINO_KEY = "nino:";
+  private static final String SUBJECT_KEY = "subject:";
+  private static final String RECORD_KEY = "record:";
+  private static final int MAX_UPDATE_ATTEMPTS = 3;
+
   private final IdentityRepository repository;
 
   private final ApplicationManagerWebClient applicationManagerWebClient;
 
+  private final IdentityOutboxProperties outboxProperties;
+
   @Override
   public Identity recordUpliftedIdentity(IdentityRequestUpdateSchemaV1 request) {
 
     log.debug("create identity request received {} ", request.getIdentityId());
-    final Optional<Identity> ninoRecord = getIdentityByNino(request.getNino());
+    for (int attempt = 1; ; attempt++) {
+      final IdentityChange change = planChange(request, findCandidates(request));
+      if (change.isInsert()) {
+        return repository.save(change.getUpdated());
+      }
+      final Optional<Identity> updated = updateIdentity(change);
+      if (updated.isPresent()) {
+        return updated.get();
+      }
+      // Planning again either sees the other consumer's change as making this one redundant, or
+      // computes the update against the record as it now stands
+      if (attempt == MAX_UPDATE_ATTEMPTS) {
+        throw new GenericRuntimeException(
+            "Identity " + change.getCurrent().getId() + " kept changing during the update");
+      }
+      log.info(
+          "Identity {} changed while the update was planned, planning again",
+          change.getCurrent().getId());
+    }
+  }
+
+  @Override
+  public List<List<Identity>> findUpliftCandidates(
+      List<IdentityRequestUpdateSchemaV1> requests) {
+    final List<Identity> candidates =
+        repository.findByNinoInOrSubjectIdIn(
+            requests.stream()
+                .map(IdentityRequestUpdateSchemaV1::getNino)
+                .filter(StringUtils::isNotBlank)
+                .toList(),
+            requests.stream().map(IdentityRequestUpdateSchemaV1::getSubjectId).toList());
+    return requests.stream()
+        .map(
+            request ->
+                candidates.stream()
+                    .filter(
+                        candidate ->
+                            isCandidateFor(candidate, Identity::getNino, request.getNino())
+                                || isCandidateFor(
+                                    candidate, Identity::getSubjectId, request.getSubjectId()))
+                    .toList())
+        .toList();
+  }
+
+  @Override
+  public IdentityChange planUpliftedIdentity(
+      IdentityRequestUpdateSchemaV1 request, List<Identity> candidates) {
+    return planChange(request, candidates);
+  }
+
+  @Override
+  public List<UpliftOutcome> applyUpliftChanges(List<IdentityChange> changes) {
+    final UpliftOutcome[] outcomes = new UpliftOutcome[changes.size()];
+    final List<Integer> planned = new ArrayList<>();
+    final List<IdentityChange> toApply = new ArrayList<>();
+    final Set<String> claimed = new HashSet<>();
+    for (int i = 0; i < changes.size(); i++) {
+      // A change to a record, nino or subject already changed in this batch must see that
+      // change first, so it is left for the caller to record on its own
+      if (!claim(claimed, changes.get(i))) {
+        outcomes[i] = UpliftOutcome.notApplied();
+        continue;
+      }
+      planned.add(i);
+      toApply.add(changes.get(i));
+    }
+
+    if (!toApply.isEmpty()) {
+      try {
+        final List<AppliedChange> applied = repository.applyChanges(toApply);
+        for (int j = 0; j < planned.size(); j++) {
+          final AppliedChange change = applied.get(j);
+          outcomes[planned.get(j)] =
+              switch (change.getStatus()) {
+                case WRITTEN -> UpliftOutcome.recorded(change.getIdentity());
+                case FAILED -> UpliftOutcome.failed(change.getFailure());
+                // The record moved on after it was read, so plan it again against what is stored
+                case NOT_APPLIED -> UpliftOutcome.notApplied();
+              };
+        }
+      } catch (RuntimeException e) {
+        log.warn("Bulk write of {} identity changes failed: {}", toApply.size(), e.getMessage());
+        planned.forEach(i -> outcomes[i] = UpliftOutcome.failed(e));
+      }
+    }
+    return Arrays.asList(outcomes);
+  }
+
+  private static boolean claim(Set<String> claimed, IdentityChange change) {
+    final List<String> keys = new ArrayList<>();
+    if (!change.isInsert()) {
+      keys.add(RECORD_KEY + change.getCurrent().getId());
+    }
+    if (StringUtils.isNotBlank(change.getUpdated().getNino())) {
+      keys.add(NINO_KEY + change.getUpdated().getNino());
+    }
+    keys.add(SUBJECT_KEY + change.getUpdated().getSubjectId());
+    if (keys.stream().anyMatch(claimed::contains)) {
+      return false;
+    }
+    claimed.addAll(keys);
+    return true;
+  }
+
+  private IdentityChange planChange(
+      IdentityRequestUpdateSchemaV1 request, List<Identity> candidates) {
+    final Optional<Identity> ninoRecord =
+        findCandidate(candidates, Identity::getNino, request.getNino());
 
     if (ninoRecord.isPresent()) {
       log.info("Record found by nino. Updating record");
       Identity recordToUpdate = ninoRecord.get();
       if (isKeyInformationSame(recordToUpdate, request)) {
-        throw new NoKeyChangesToExistingRecordException(
-            "Key information not changed on existing NINO record");
+        throw new NoKeyChangesToExistingRecordException(NINO_RECORD_NOT_CHANGED);
       }
-      return updateExistingNinoRecord(request, recordToUpdate);
+      return IdentityChange.update(
+          recordToUpdate,
+          withPendingDistribution(request, buildNinoRecordUpdate(request, recordToUpdate)),
+          keyInformation(request));
     }
 
-    final Optional<Identity> subjectRecord = getIdentityBySubjectId(request.getSubjectId());
+    final Optional<Identity> subjectRecord =
+        findCandidate(candidates, Identity::getSubjectId, request.getSubjectId());
     if (subjectRecord.isPresent()) {
       log.info("Record found by subject. Updating record");
       Identity recordToUpdate = subjectRecord.get();
       if (isKeyInformationSame(recordToUpdate, request)) {
-        throw new NoKeyChangesToExistingRecordException(
-            "Key information not changed on existing Subject record");
+        throw new NoKeyChangesToExistingRecordException(SUBJECT_RECORD_NOT_CHANGED);
       }
-      return updateExistingSubjectRecord(request, recordToUpdate);
+      return IdentityChange.update(
+          recordToUpdate,
+          withPendingDistribution(request, buildSubjectRecordUpdate(request, recordToUpdate)),
+          keyInformation(request));
     }
 
     log.info("No existing record found. Creating new record");
     Identity.IdentityBuilder builder = IdentityBuilder.createBuilder(request);
     processApplicationId(request, builder);
     builder.idvStatus(VERIFIED);
-    return saveIdentity(builder);
+    return IdentityChange.insert(
+        withPendingDistribution(
+            request, IdentityStatusCalculator.withComputedStatus(builder.build())));
   }
 
-  private Identity saveIdentity(Identity.IdentityBuilder builder) {
-    Identity identity = builder.build();
-    return repository.save(identity);
+  // With the outbox enabled the update event is written with the record and sent by the relay
+  private Identity withPendingDistribution(
+      IdentityRequestUpdateSchemaV1 request, Identity identity) {
+    if (outboxProperties.isEnabled() && PendingDistribution.isRequired(request, identity)) {
+      identity.setPendingDistribution(PendingDistribution.of(identity, Instant.now()));
+    }
+    return identity;
+  }
+
+  // Without a NINO the $or would match every NINO-less identity, so look up the subject alone
+  private List<Identity> findCandidates(IdentityRequestUpdateSchemaV1 request) {
+    if (StringUtils.isBlank(request.getNino())) {
+      return repository.findBySubjectId(request.getSubjectId()).map(List::of).orElse(List.of());
+    }
+    return repository.findByNinoOrSubjectId(request.getNino(), request.getSubjectId());
+  }
+
+  // A blank value never matches, so a NINO-less request cannot claim a NINO-less record
+  private static Optional<Identity> findCandidate(
+      List<Identity> candidates, Function<Identity, String> key, String value) {
+    return candidates.stream()
+        .filter(candidate -> isCandidateFor(candidate, key, value))
+        .findFirst();
+  }
+
+  private static boolean isCandidateFor(
+      Identity candidate, Function<Identity, String> key, String value) {
+    return StringUtils.isNotBlank(value) && StringUtils.equals(key.apply(candidate), value);
   }
 
   @Override
@@ -81,7 +249,7 @@ public class IdentityServiceImpl implements IdentityService {
     }
     identity.get().setApplicationID(applicationId);
     log.info("Application id: {}, has been set for Identity: {}", applicationId, identityId);
-    repository.save(identity.get());
+    repository.save(IdentityStatusCalculator.withComputedStatus(identity.get()));
   }
 
   @Override
@@ -102,39 +270,54 @@ public class IdentityServiceImpl implements IdentityService {
     identity.setVot(Vot.P_2_CL_CM.toString());
     identity.setUpliftDetails(upliftDto);
 
-    repository.save(identity);
+    repository.save(IdentityStatusCalculator.withComputedStatus(identity));
 
     return IdvAgentUpliftOutcome.SUCCESS;
   }
 
-  private Identity updateExistingNinoRecord(
+  private Identity buildNinoRecordUpdate(
       IdentityRequestUpdateSchemaV1 request, Identity ninoRecord) {
     var builder = IdentityBuilder.createBuilderFromIdentity(ninoRecord);
     setBaseIdentityFields(builder, request);
     processApplicationIdIfNoneExists(request, ninoRecord, builder);
     builder.subjectId(request.getSubjectId());
     builder.idvStatus(VERIFIED);
-    return saveIdentity(builder);
+    return IdentityStatusCalculator.withComputedStatus(builder.build());
   }
 
-  private Identity updateExistingSubjectRecord(
+  private Identity buildSubjectRecordUpdate(
       IdentityRequestUpdateSchemaV1 request, Identity subjectRecord) {
     var builder = IdentityBuilder.createBuilderFromIdentity(subjectRecord);
     setBaseIdentityFields(builder, request);
     processApplicationIdIfNoneExists(request, subjectRecord, builder);
     builder.nino(request.getNino());
     builder.idvStatus(VERIFIED);
-    return saveIdentity(builder);
+    return IdentityStatusCalculator.withComputedStatus(builder.build());
+  }
+
+  // The repository only applies the update while the record is as it was read, so a concurrent
+  // update cannot be overwritten
+  private Optional<Identity> updateIdentity(IdentityChange change) {
+    return repository.updateIfKeyInformationChanged(
+        change.getCurrent(), change.getUpdated(), change.getKey());
+  }
+
+  private static IdentityKeyInformation keyInformation(IdentityRequestUpdateSchemaV1 request) {
+    return IdentityKeyInformation.of(
+        request.getSubjectId(),
+        request.getNino(),
+        request.getVot() == null ? "" : request.getVot().value(),
+        request.getIdvOutcome() == null ? null : request.getIdvOutcome().toString());
   }
 
   private boolean isKeyInformationSame(Identity record, IdentityRequestUpdateSchemaV1 request) {
-    final var newVotValue = request.getVot() == null ? "" : request.getVot().value();
+    final var key = keyInformation(request);
     final var existingVotValue = record.getVot() == null ? "" : record.getVot();
 
-    return (areValuesEqual(record.getSubjectId(), request.getSubjectId())
-        && areValuesEqual(existingVotValue, newVotValue)
-        && areValuesEqual(record.getNino(), request.getNino())
-        && areValuesEqual(record.getIdvStatus(), request.getIdvOutcome().toString()));
+    return (areValuesEqual(record.getSubjectId(), key.getSubjectId())
+        && areValuesEqual(existingVotValue, key.getVot())
+        && areValuesEqual(record.getNino(), key.getNino())
+        && areValuesEqual(record.getIdvStatus(), key.getIdvStatus()));
   }
 
   private boolean areValuesEqual(String originalRecordValue, String newRecordValue) {
@@ -242,6 +425,28 @@ public class IdentityServiceImpl implements IdentityService {
     return repository.findByNino(nino);
   }
 
+  @Override
+  public Optional<IdentityStatus> getIdentityStatusBySubjectId(String subjectId) {
+    return repository.findStatusBySubjectId(subjectId);
+  }
+
+  @Override
+  public Optional<IdentityStatus> getIdentityStatusByNino(String nino) {
+    return repository.findStatusByNino(nino);
+  }
+
+  @Override
+  public Map<String, String> getIdvStatusByNinos(Collection<String> ninos) {
+    final Map<String, String> statuses = new LinkedHashMap<>();
+    for (IdentityStatus identityStatus : repository.findStatusByNinoIn(ninos)) {
+      final String status = IdentityStatusCalculator.fromStatus(identityStatus);
+      if (status != null) {
+        statuses.putIfAbsent(identityStatus.getNino(), status);
+      }
+    }
+    return statuses;
+  }
+
   @Override
   public Optional<Identity> getIdentityByApplicationId(String applicationId) {
     return repository.findByApplicationID(applicationId);
@@ -251,4 +456,14 @@ public class IdentityServiceImpl implements IdentityService {
   public Optional<Identity> getIdentityById(String id) {
     return repository.findById(id);
   }
+
+  @Override
+  public Optional<IdentitySummary> getIdentitySummaryByApplicationId(String applicationId) {
+    return repository.findSummaryByApplicationID(applicationId);
+  }
+
+  @Override
+  public Optional<IdentitySummary> getIdentitySummaryById(String id) {
+    return repository.findSummaryById(id);
+  }
 }
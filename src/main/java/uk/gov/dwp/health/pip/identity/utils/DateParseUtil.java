@@ -5,21 +5,98 @@ import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
+import java.time.Year;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
 
 public class DateParseUtil {
 
+  private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+  // Older timestamps keep the lenient parse: java.util.TimeZone models zone history before then
+  // differently from java.time, so the two parses disagree on early local mean time offsets
+  private static final int FIRST_FAST_PATH_YEAR = 1970;
+
   private DateParseUtil() {}
 
   public static String dateTimeToString(LocalDateTime localDateTime) {
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    return localDateTime.format(formatter);
+    return localDateTime.format(FORMATTER);
   }
 
   public static LocalDateTime stringToDateTime(String dateStamp) {
+    final LocalDateTime parsed = parseFixedWidth(dateStamp);
+    return parsed == null ? parseLenient(dateStamp) : shiftOutOfGap(parsed);
+  }
+
+  // Reads a well formed yyyy-MM-dd HH:mm:ss straight off the characters, returning null for
+  // anything else so the lenient parse can decide what it means
+  private static LocalDateTime parseFixedWidth(String dateStamp) {
+    if (dateStamp == null
+        || dateStamp.length() != PATTERN.length()
+        || dateStamp.charAt(4) != '-'
+        || dateStamp.charAt(7) != '-'
+        || dateStamp.charAt(10) != ' '
+        || dateStamp.charAt(13) != ':'
+        || dateStamp.charAt(16) != ':') {
+      return null;
+    }
+    final int year = digits(dateStamp, 0, 4);
+    final int month = digits(dateStamp, 5, 2);
+    final int day = digits(dateStamp, 8, 2);
+    final int hour = digits(dateStamp, 11, 2);
+    final int minute = digits(dateStamp, 14, 2);
+    final int second = digits(dateStamp, 17, 2);
+    if (year < FIRST_FAST_PATH_YEAR
+        || month < 1
+        || month > 12
+        || day < 1
+        || day > daysInMonth(year, month)
+        || hour < 0
+        || hour > 23
+        || minute < 0
+        || minute > 59
+        || second < 0
+        || second > 59) {
+      return null;
+    }
+    return LocalDateTime.of(year, month, day, hour, minute, second);
+  }
+
+  // Returns -1 unless every character in the range is an ASCII digit
+  private static int digits(String value, int start, int length) {
+    int result = 0;
+    for (int i = start; i < start + length; i++) {
+      final int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
+  private static int daysInMonth(int year, int month) {
+    return switch (month) {
+      case 2 -> Year.isLeap(year) ? 29 : 28;
+      case 4, 6, 9, 11 -> 30;
+      default -> 31;
+    };
+  }
+
+  // Timestamps used to be parsed through the default zone, which moves a wall time that falls in
+  // a DST gap forward by the length of the gap. Keep doing that so parsed values do not change
+  private static LocalDateTime shiftOutOfGap(LocalDateTime parsed) {
+    final ZoneOffsetTransition transition = ZoneId.systemDefault().getRules().getTransition(parsed);
+    return transition != null && transition.isGap()
+        ? parsed.plus(transition.getDuration())
+        : parsed;
+  }
+
+  // The original lenient parse, kept for input outside the fixed width shape
+  private static LocalDateTime parseLenient(String dateStamp) {
     try {
-      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      SimpleDateFormat sdf = new SimpleDateFormat(PATTERN);
       return LocalDateTime.ofInstant(sdf.parse(dateStamp).toInstant(), ZoneId.systemDefault());
     } catch (ParseException pe) {
       throw new GenericRuntimeException("Invalid Date format");
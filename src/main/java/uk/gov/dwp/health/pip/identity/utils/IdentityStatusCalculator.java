@@ -3,6 +3,7 @@ package uk.gov.dwp.health.pip.identity.utils;
 import org.apache.commons.lang3.StringUtils;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
 
 public class IdentityStatusCalculator {
   public static final String VERIFIED = "verified";
@@ -15,11 +16,23 @@ public class IdentityStatusCalculator {
   }
 
   public static String fromIdentity(Identity identity) {
-    final String vot = identity.getVot();
+    return fromValues(identity.getIdvStatus(), identity.getVot(), identity.getNino());
+  }
+
+  public static Identity withComputedStatus(Identity identity) {
+    identity.setComputedStatus(fromIdentity(identity));
+    return identity;
+  }
+
+  public static String fromStatus(IdentityStatus status) {
+    return fromValues(status.getIdvStatus(), status.getVot(), status.getNino());
+  }
+
+  private static String fromValues(final String idvStatus, final String vot, final String nino) {
     if (vot == null) {
-      return identity.getIdvStatus();
+      return idvStatus;
     }
-    return fromDataValues(identity.getIdvStatus(), vot, identity.getNino());
+    return fromDataValues(idvStatus, vot, nino);
   }
 
   private static String fromDataValues(
@@ -0,0 +1,83 @@
+package uk.gov.dwp.health.pip.identity.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, thread safe bloom filter over strings. {@link #mightContain} never returns false for
+ * a value that was {@link #put}, and returns true for an absent value at roughly the configured
+ * false positive rate until more than the expected number of values have been put.
+ */
+public final class StringBloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  public StringBloomFilter(long expectedInsertions, double falsePositiveRate) {
+    final long bits =
+        (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+    final int wordCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (bits + 63) / 64));
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = (long) wordCount * 64;
+    this.hashCount =
+        Math.max(1, (int) Math.round((double) bitCount / Math.max(1, expectedInsertions) * LN2));
+  }
+
+  /**
+   * Adds {@code value} to the filter.
+   *
+   * @return true if this set any bit, so the value was not already in the filter; false for a
+   *     value put before or one that was a false positive
+   */
+  public boolean put(String value) {
+    final long hash = hash64(value);
+    final int first = (int) hash;
+    final int second = (int) (hash >>> 32);
+    boolean changed = false;
+    for (int i = 1; i <= hashCount; i++) {
+      final long bit = Math.floorMod(first + (long) i * second, bitCount);
+      final int word = (int) (bit >>> 6);
+      final long mask = 1L << bit;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+      changed |= (current & mask) == 0;
+    }
+    return changed;
+  }
+
+  public boolean mightContain(String value) {
+    final long hash = hash64(value);
+    final int first = (int) hash;
+    final int second = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      final long bit = Math.floorMod(first + (long) i * second, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // FNV-1a over the UTF-8 bytes, finished with the murmur3 mixer to spread the high bits
+  private static long hash64(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -1,14 +1,66 @@
 package uk.gov.dwp.health.pip.identity.utils;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.Arrays;
 
 public class TokenUtils {
+
+  private static final byte[] BASE64_URL_VALUES = new byte[128];
+
+  static {
+    Arrays.fill(BASE64_URL_VALUES, (byte) -1);
+    final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    for (int i = 0; i < alphabet.length(); i++) {
+      BASE64_URL_VALUES[alphabet.charAt(i)] = (byte) i;
+    }
+  }
+
   private TokenUtils() {}
 
   public static String decodePayload(String token) {
-    String[] parts = token.split("\\.", 0);
-    byte[] bytes = Base64.getUrlDecoder().decode(parts[1]);
-    return new String(bytes, StandardCharsets.UTF_8);
+    return new String(decodePayloadBytes(token), StandardCharsets.UTF_8);
+  }
+
+  // Finds the payload segment by index and base64url decodes it straight into the returned
+  // array, so neither the token nor the segment is copied into an intermediate string
+  public static byte[] decodePayloadBytes(String token) {
+    final int start = token.indexOf('.') + 1;
+    if (start == 0) {
+      throw new IllegalArgumentException("Token has no payload segment");
+    }
+    final int nextDot = token.indexOf('.', start);
+    final int segmentEnd = nextDot < 0 ? token.length() : nextDot;
+    int end = segmentEnd;
+    while (end > start && token.charAt(end - 1) == '=') {
+      end--;
+    }
+    final int length = end - start;
+    final int remainder = length % 4;
+    final int padding = segmentEnd - end;
+    if (remainder == 1 || padding > 2 || (padding > 0 && (length + padding) % 4 != 0)) {
+      throw new IllegalArgumentException("Token payload is not valid base64url");
+    }
+
+    final byte[] decoded = new byte[length / 4 * 3 + (remainder == 0 ? 0 : remainder - 1)];
+    int out = 0;
+    int bits = 0;
+    int bitCount = 0;
+    for (int i = start; i < end; i++) {
+      bits = (bits << 6) | valueOf(token.charAt(i));
+      bitCount += 6;
+      if (bitCount >= 8) {
+        bitCount -= 8;
+        decoded[out++] = (byte) (bits >> bitCount);
+      }
+    }
+    return decoded;
+  }
+
+  private static int valueOf(char c) {
+    final int value = c < BASE64_URL_VALUES.length ? BASE64_URL_VALUES[c] : -1;
+    if (value < 0) {
+      throw new IllegalArgumentException("Illegal base64url character in token payload");
+    }
+    return value;
   }
 }
@@ -6,6 +6,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import uk.gov.dwp.health.pip.identity.exception.AccountNotFoundException;
 import uk.gov.dwp.health.pip.identity.model.AccountDetailsResponse;
 
@@ -22,13 +23,7 @@ public class AccountManagerWebClient {
 
   public Optional<AccountDetailsResponse> getAccountDetailsFromEmail(String email) {
     log.info("About to make get details request from ms-account-manager");
-    AccountDetailsResponse[] response =
-        webClient
-            .get()
-            .uri(ACCOUNT_DETAILS_FROM_EMAIL_PATH + email)
-            .retrieve()
-            .bodyToMono(AccountDetailsResponse[].class)
-            .block();
+    AccountDetailsResponse[] response = requestAccountDetails(email).block();
 
     log.info("Response received from get details request from ms-account-manager");
 
@@ -37,4 +32,23 @@ public class AccountManagerWebClient {
     }
     return Optional.of(response[0]);
   }
+
+  // Completes empty rather than failing when no account matches the email
+  public Mono<AccountDetailsResponse> getAccountDetailsFromEmailAsync(String email) {
+    log.info("About to make get details request from ms-account-manager");
+    return requestAccountDetails(email)
+        .doOnNext(
+            response ->
+                log.info("Response received from get details request from ms-account-manager"))
+        .filter(ArrayUtils::isNotEmpty)
+        .map(response -> response[0]);
+  }
+
+  private Mono<AccountDetailsResponse[]> requestAccountDetails(String email) {
+    return webClient
+        .get()
+        .uri(ACCOUNT_DETAILS_FROM_EMAIL_PATH + email)
+        .retrieve()
+        .bodyToMono(AccountDetailsResponse[].class);
+  }
 }
@@ -0,0 +1,62 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import static uk.gov.dwp.health.pip.identity.constants.Constants.DWP_GUID;
+import static uk.gov.dwp.health.pip.identity.constants.Constants.NINO;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.health.pip.identity.config.properties.GuidCacheProperties;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+
+@Component
+public class GuidLookupCache {
+
+  private final Cache<String, IdentifierDto> ninoByGuid;
+  private final Cache<String, IdentifierDto> guidByNino;
+
+  public GuidLookupCache(GuidCacheProperties properties, MeterRegistry meterRegistry) {
+    this.ninoByGuid = buildCache(properties);
+    this.guidByNino = buildCache(properties);
+    CaffeineCacheMetrics.monitor(meterRegistry, ninoByGuid, "guidServiceNinoByGuid");
+    CaffeineCacheMetrics.monitor(meterRegistry, guidByNino, "guidServiceGuidByNino");
+  }
+
+  private static Cache<String, IdentifierDto> buildCache(GuidCacheProperties properties) {
+    return Caffeine.newBuilder()
+        .maximumSize(properties.getMaxSize())
+        .expireAfterWrite(properties.getTtl())
+        .recordStats()
+        .build();
+  }
+
+  public Optional<IdentifierDto> getNinoForGuid(String guid) {
+    return Optional.ofNullable(ninoByGuid.getIfPresent(guid));
+  }
+
+  public Optional<IdentifierDto> getGuidForNino(String nino) {
+    return Optional.ofNullable(guidByNino.getIfPresent(nino));
+  }
+
+  public void putNinoForGuid(String guid, IdentifierDto nino) {
+    if (nino == null || StringUtils.isBlank(nino.getIdentifier())) {
+      return;
+    }
+    ninoByGuid.put(guid, nino);
+    guidByNino.put(
+        nino.getIdentifier(), IdentifierDto.builder().identifier(guid).type(DWP_GUID).build());
+  }
+
+  public void putGuidForNino(String nino, IdentifierDto guid) {
+    if (guid == null || StringUtils.isBlank(guid.getIdentifier())) {
+      return;
+    }
+    guidByNino.put(nino, guid);
+    ninoByGuid.put(
+        guid.getIdentifier(), IdentifierDto.builder().identifier(nino).type(NINO).build());
+  }
+}
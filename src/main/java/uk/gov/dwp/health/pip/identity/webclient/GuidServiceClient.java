@@ -7,8 +7,9 @@ import static uk.gov.dwp.health.pip.identity.constants.Constants.REQUEST_ID;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -19,6 +20,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
 import uk.gov.dwp.health.pip.identity.model.CognitoToken;
 import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
@@ -26,11 +29,16 @@ import uk.gov.dwp.health.pip.identity.service.impl.CognitoService;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class GuidServiceClient {
+  private static final String COLLAPSED_LOOKUPS_METRIC = "identity.guid.lookup.collapsed";
+
   private final ObjectMapper objectMapper;
   private final RestTemplate restTemplate;
   private final CognitoService cognitoService;
+  private final GuidLookupCache guidLookupCache;
+  private final Optional<ReactiveGuidServiceClient> reactiveGuidServiceClient;
+  private final SingleFlight<String, IdentifierDto> ninoFromGuidLookups;
+  private final SingleFlight<String, IdentifierDto> guidFromNinoLookups;
 
   @Value("${uk.gov.dwp.guid.service.nino.url}")
   private String guidServiceNinoUrl;
@@ -41,7 +49,97 @@ public class GuidServiceClient {
   @Value("${uk.gov.dwp.integration-gateway.base-url}")
   private String integrationGatewayBaseUrl;
 
+  public GuidServiceClient(
+      ObjectMapper objectMapper,
+      RestTemplate restTemplate,
+      CognitoService cognitoService,
+      GuidLookupCache guidLookupCache,
+      Optional<ReactiveGuidServiceClient> reactiveGuidServiceClient,
+      MeterRegistry meterRegistry) {
+    this.objectMapper = objectMapper;
+    this.restTemplate = restTemplate;
+    this.cognitoService = cognitoService;
+    this.guidLookupCache = guidLookupCache;
+    this.reactiveGuidServiceClient = reactiveGuidServiceClient;
+    this.ninoFromGuidLookups =
+        new SingleFlight<>(
+            meterRegistry.counter(COLLAPSED_LOOKUPS_METRIC, "lookup", "nino-from-guid"));
+    this.guidFromNinoLookups =
+        new SingleFlight<>(
+            meterRegistry.counter(COLLAPSED_LOOKUPS_METRIC, "lookup", "guid-from-nino"));
+  }
+
   public IdentifierDto getGuidFromNino(String nino) {
+    if (reactiveGuidServiceClient.isPresent()) {
+      return getGuidFromNinoAsync(nino).block();
+    }
+    final Optional<IdentifierDto> cachedGuid = guidLookupCache.getGuidForNino(nino);
+    if (cachedGuid.isPresent()) {
+      log.info("DWP GUID for NINO served from cache");
+      return cachedGuid.get();
+    }
+    return guidFromNinoLookups.execute(
+        nino,
+        () -> {
+          final IdentifierDto guid = requestGuidFromNino(nino);
+          guidLookupCache.putGuidForNino(nino, guid);
+          return guid;
+        });
+  }
+
+  public IdentifierDto getNinoFromGuid(String identifierValue) {
+    if (reactiveGuidServiceClient.isPresent()) {
+      return getNinoFromGuidAsync(identifierValue).block();
+    }
+    final Optional<IdentifierDto> cachedNino = guidLookupCache.getNinoForGuid(identifierValue);
+    if (cachedNino.isPresent()) {
+      log.info("NINO for DWP Guid served from cache");
+      return cachedNino.get();
+    }
+    return ninoFromGuidLookups.execute(
+        identifierValue,
+        () -> {
+          final IdentifierDto nino = requestNinoFromGuid(identifierValue);
+          guidLookupCache.putNinoForGuid(identifierValue, nino);
+          return nino;
+        });
+  }
+
+  public Mono<IdentifierDto> getGuidFromNinoAsync(String nino) {
+    if (reactiveGuidServiceClient.isEmpty()) {
+      return Mono.fromCallable(() -> getGuidFromNino(nino))
+          .subscribeOn(Schedulers.boundedElastic());
+    }
+    return Mono.defer(() -> Mono.justOrEmpty(guidLookupCache.getGuidForNino(nino)))
+        .doOnNext(guid -> log.info("DWP GUID for NINO served from cache"))
+        .switchIfEmpty(
+            guidFromNinoLookups.executeAsync(
+                nino,
+                () ->
+                    reactiveGuidServiceClient
+                        .get()
+                        .getGuidFromNino(nino)
+                        .doOnNext(guid -> guidLookupCache.putGuidForNino(nino, guid))));
+  }
+
+  public Mono<IdentifierDto> getNinoFromGuidAsync(String identifierValue) {
+    if (reactiveGuidServiceClient.isEmpty()) {
+      return Mono.fromCallable(() -> getNinoFromGuid(identifierValue))
+          .subscribeOn(Schedulers.boundedElastic());
+    }
+    return Mono.defer(() -> Mono.justOrEmpty(guidLookupCache.getNinoForGuid(identifierValue)))
+        .doOnNext(nino -> log.info("NINO for DWP Guid served from cache"))
+        .switchIfEmpty(
+            ninoFromGuidLookups.executeAsync(
+                identifierValue,
+                () ->
+                    reactiveGuidServiceClient
+                        .get()
+                        .getNinoFromGuid(identifierValue)
+                        .doOnNext(nino -> guidLookupCache.putNinoForGuid(identifierValue, nino))));
+  }
+
+  private IdentifierDto requestGuidFromNino(String nino) {
     CognitoToken guidCognitoToken = cognitoService.getCognitoToken();
     HttpHeaders guidRequestHeaders = new HttpHeaders();
     String correlationId = UUID.randomUUID().toString();
@@ -79,7 +177,7 @@ public class GuidServiceClient {
     }
   }
 
-  public IdentifierDto getNinoFromGuid(String identifierValue) {
+  private IdentifierDto requestNinoFromGuid(String identifierValue) {
     CognitoToken guidCognitoToken = cognitoService.getCognitoToken();
     HttpHeaders guidRequestHeaders = new HttpHeaders();
     String correlationId = UUID.randomUUID().toString();
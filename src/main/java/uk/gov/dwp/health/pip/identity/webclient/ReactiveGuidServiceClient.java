@@ -0,0 +1,119 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import static uk.gov.dwp.health.pip.identity.constants.Constants.CORRELATION_ID;
+import static uk.gov.dwp.health.pip.identity.constants.Constants.IDENTIFIER;
+import static uk.gov.dwp.health.pip.identity.constants.Constants.REQUEST_ID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
+import uk.gov.dwp.health.pip.identity.model.CognitoToken;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+import uk.gov.dwp.health.pip.identity.service.impl.CognitoService;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(
+    prefix = "uk.gov.dwp.guid.service.reactive-client",
+    name = "enabled",
+    havingValue = "true")
+public class ReactiveGuidServiceClient {
+  private final ObjectMapper objectMapper;
+  private final WebClient webClient;
+  private final CognitoService cognitoService;
+
+  @Value("${uk.gov.dwp.guid.service.nino.url}")
+  private String guidServiceNinoUrl;
+
+  @Value("${uk.gov.dwp.guid.service.guid.url}")
+  private String guidServiceGuidUrl;
+
+  public ReactiveGuidServiceClient(
+      ObjectMapper objectMapper,
+      @Qualifier("guidServiceWebClient") WebClient webClient,
+      CognitoService cognitoService) {
+    this.objectMapper = objectMapper;
+    this.webClient = webClient;
+    this.cognitoService = cognitoService;
+  }
+
+  public Mono<IdentifierDto> getGuidFromNino(String nino) {
+    return lookup(guidServiceGuidUrl, nino, "DWP GUID for NINO");
+  }
+
+  public Mono<IdentifierDto> getNinoFromGuid(String identifierValue) {
+    return lookup(guidServiceNinoUrl, identifierValue, "NINO for DWP Guid");
+  }
+
+  private Mono<IdentifierDto> lookup(String path, String identifierValue, String lookupName) {
+    return cognitoService
+        .getCognitoTokenAsync()
+        .flatMap(token -> exchange(path, identifierValue, lookupName, token));
+  }
+
+  private Mono<IdentifierDto> exchange(
+      String path, String identifierValue, String lookupName, CognitoToken token) {
+    final String correlationId = UUID.randomUUID().toString();
+    final String requestId = UUID.randomUUID().toString();
+    log.info("Attempting to get " + lookupName + ", correlation id " + correlationId);
+    return webClient
+        .get()
+        .uri(path)
+        .header(CORRELATION_ID, correlationId)
+        .header(REQUEST_ID, requestId)
+        .header(IDENTIFIER, identifierValue)
+        .headers(headers -> headers.setBearerAuth(token.getAccessToken()))
+        .retrieve()
+        .toEntity(String.class)
+        .doOnNext(
+            response ->
+                log.info(lookupName + " Retrieved Successfully, correlation_id: " + correlationId))
+        .flatMap(response -> Mono.fromCallable(() -> handleGuidResponse(response)))
+        .onErrorMap(
+            WebClientException.class,
+            webClientException -> {
+              log.error(
+                  "ClientException Calling Guid Service, error message: "
+                      + webClientException.getMessage()
+                      + " correlation_id: "
+                      + correlationId);
+              return new IdentityRestClientException(
+                  "Error Communicating with Guid Server, review application logs");
+            })
+        .onErrorMap(
+            e -> !(e instanceof IdentityRestClientException),
+            e -> {
+              log.error(
+                  "Exception calling the guid service: "
+                      + e.getMessage()
+                      + " for correlation id : "
+                      + correlationId);
+              return new RuntimeException("Exception calling guid service");
+            });
+  }
+
+  private IdentifierDto handleGuidResponse(ResponseEntity<String> guidResponse)
+      throws JsonProcessingException {
+    if (guidResponse.getStatusCode() == HttpStatus.OK) {
+      return objectMapper.readValue(guidResponse.getBody(), new TypeReference<>() {});
+    } else {
+      throw new IllegalStateException(
+          "Guid service returned unexpected status code : "
+              + guidResponse.getStatusCode()
+              + ", with reason : "
+              + guidResponse.getBody());
+    }
+  }
+}
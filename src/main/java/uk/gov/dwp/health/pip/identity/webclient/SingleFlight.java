@@ -0,0 +1,76 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+// Runs at most one call per key at a time; concurrent callers for the same key wait on the
+// first caller's result (or exception) instead of making their own call
+class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter collapsedCalls;
+
+  SingleFlight(Counter collapsedCalls) {
+    this.collapsedCalls = collapsedCalls;
+  }
+
+  V execute(K key, Supplier<V> call) {
+    final CompletableFuture<V> result = new CompletableFuture<>();
+    final CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+    if (existing != null) {
+      collapsedCalls.increment();
+      return await(existing);
+    }
+    try {
+      final V value = call.get();
+      result.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, result);
+    }
+  }
+
+  // The call is subscribed on its own rather than through the first caller, so it runs to
+  // completion and its result still reaches the waiters when the first caller cancels
+  Mono<V> executeAsync(K key, Supplier<Mono<V>> call) {
+    return Mono.defer(
+        () -> {
+          final CompletableFuture<V> result = new CompletableFuture<>();
+          final CompletableFuture<V> existing = inFlight.putIfAbsent(key, result);
+          if (existing != null) {
+            collapsedCalls.increment();
+            return Mono.fromFuture(existing, true);
+          }
+          result.whenComplete((value, error) -> inFlight.remove(key, result));
+          try {
+            call.get()
+                .subscribe(
+                    result::complete,
+                    result::completeExceptionally,
+                    () -> result.complete(null));
+          } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+          }
+          return Mono.fromFuture(result, true);
+        });
+  }
+
+  private V await(CompletableFuture<V> existing) {
+    try {
+      return existing.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+}
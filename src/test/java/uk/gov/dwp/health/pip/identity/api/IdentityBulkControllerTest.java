@@ -0,0 +1,106 @@
+package uk.gov.dwp.health.pip.identity.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import uk.gov.dwp.health.identity.status.openapi.model.IdvDto;
+import uk.gov.dwp.health.pip.identity.model.NinoListDto;
+import uk.gov.dwp.health.pip.identity.service.IdentityService;
+
+class IdentityBulkControllerTest {
+
+  private IdentityService service;
+  private IdentityBulkController controller;
+
+  @BeforeEach
+  void setUp() {
+    service = mock(IdentityService.class);
+    controller = new IdentityBulkController(service, 3);
+  }
+
+  @Test
+  void getIdentitiesByNinos_returnsStatusesAndReportsMissingNinosInline() {
+    when(service.getIdvStatusByNinos(any()))
+        .thenReturn(Map.of("RN000001A", "verified", "RN000002A", "unverified"));
+
+    var response =
+        controller.getIdentitiesByNinos(
+            new NinoListDto(List.of("RN000001A", "RN000002A", "RN000003A")));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).isNotNull();
+    assertThat(response.getBody().getStatuses())
+        .containsEntry("RN000001A", new IdvDto().idvStatus(IdvDto.IdvStatusEnum.VERIFIED))
+        .containsEntry("RN000002A", new IdvDto().idvStatus(IdvDto.IdvStatusEnum.UNVERIFIED))
+        .doesNotContainKey("RN000003A");
+    assertThat(response.getBody().getNotFound()).containsExactly("RN000003A");
+  }
+
+  @Test
+  void getIdentitiesByNinos_looksUpDuplicateNinosOnce() {
+    when(service.getIdvStatusByNinos(any())).thenReturn(Map.of());
+
+    var response =
+        controller.getIdentitiesByNinos(
+            new NinoListDto(List.of("RN000001A", "RN000001A", "RN000001A")));
+
+    verify(service).getIdvStatusByNinos(Set.of("RN000001A"));
+    assertThat(response.getBody().getNotFound()).containsExactly("RN000001A");
+  }
+
+  @Test
+  void getIdentitiesByNinos_returns400_whenNoNinosSupplied() {
+    assertThat(controller.getIdentitiesByNinos(new NinoListDto(null)).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(controller.getIdentitiesByNinos(new NinoListDto(List.of())).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void getIdentitiesByNinos_returns400_whenTooManyNinosSupplied() {
+    var response =
+        controller.getIdentitiesByNinos(
+            new NinoListDto(Collections.nCopies(4, "RN000001A")));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void getIdentitiesByNinos_returns400_whenBlankNinoSupplied() {
+    var response =
+        controller.getIdentitiesByNinos(new NinoListDto(Arrays.asList("RN000001A", null)));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(
+            controller.getIdentitiesByNinos(new NinoListDto(List.of(" "))).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void getIdentitiesByNinos_reportsUnrecognisedStatusAsNotFound() {
+    when(service.getIdvStatusByNinos(any()))
+        .thenReturn(Map.of("RN000001A", "verified", "RN000002A", "pending"));
+
+    var response =
+        controller.getIdentitiesByNinos(new NinoListDto(List.of("RN000001A", "RN000002A")));
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody().getStatuses()).containsOnlyKeys("RN000001A");
+    assertThat(response.getBody().getNotFound()).containsExactly("RN000002A");
+  }
+}
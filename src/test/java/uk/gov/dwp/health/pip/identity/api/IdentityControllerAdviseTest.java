@@ -69,6 +69,14 @@ public class IdentityControllerAdviseTest {
         assertThat(actual.getBody()).isNull();
     }
 
+    @Test
+    void shouldReturnServiceUnavailableWhenPublishBufferIsFull() {
+        var exp = new PublishBufferFullException("Outbound event buffer is full");
+        var actual = controllerAdvise.handlePublishBufferFullException(exp);
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(actual.getBody()).isNull();
+    }
+
     @Test
     void shouldReturnInternalServerForAnyException() {
         var exp = new GenericRuntimeException("Generic Runtime Exception");
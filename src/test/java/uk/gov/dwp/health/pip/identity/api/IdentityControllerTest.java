@@ -14,20 +14,21 @@ import uk.gov.dwp.health.identity.status.openapi.model.IdentityResponse;
 import uk.gov.dwp.health.identity.status.openapi.model.IdentityResponse2;
 import uk.gov.dwp.health.identity.status.openapi.model.IdvDto;
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
-import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
 import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 import uk.gov.dwp.health.pip.identity.model.IdvAgentUpliftOutcome;
 import uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService;
 import uk.gov.dwp.health.pip.identity.service.impl.IdentityServiceImpl;
 
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -47,12 +48,9 @@ class IdentityControllerTest {
   @Test
   void getIdentityBySubjectId_returns200_whenSuccessfullyFound() {
     String subjectId = "test@dwp.gov.uk";
-    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
+    IdentityStatus savedStatus = new IdentityStatus("nino", null, "verified");
 
-    Identity savedIdentity = new Identity("id", subjectId, identityId, dateTime, OIDV, "verified",
-        "nino", "applicationId", "", null);
-
-    when(service.getIdentityBySubjectId(subjectId)).thenReturn(Optional.of(savedIdentity));
+    when(service.getIdentityStatusBySubjectId(subjectId)).thenReturn(Optional.of(savedStatus));
 
     ResponseEntity<IdvDto> expectedResponse = new ResponseEntity<>(
         new IdvDto().idvStatus(IdvDto.IdvStatusEnum.VERIFIED), HttpStatus.OK);
@@ -65,7 +63,7 @@ class IdentityControllerTest {
   void getIdentityBySubjectId_returns404_whenNoIdentityFound() {
     String subjectId = "test@dwp.gov.uk";
 
-    when(service.getIdentityBySubjectId(subjectId)).thenReturn(Optional.empty());
+    when(service.getIdentityStatusBySubjectId(subjectId)).thenReturn(Optional.empty());
 
     ResponseEntity<IdvDto> expectedResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
     ResponseEntity<IdvDto> actualResponse = controller.getIdentityBySubjectId(subjectId);
@@ -85,12 +83,9 @@ class IdentityControllerTest {
   @Test
   void getIdentityByNino_returns200_whenSuccessfullyFound() {
     String nino = "RN000010A";
-    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
-
-    Identity savedIdentity = new Identity("id", "test@dwp.gov.uk", identityId, dateTime, OIDV,
-        "verified", nino, "applicationId", "", null);
+    IdentityStatus savedStatus = new IdentityStatus(nino, null, "verified");
 
-    when(service.getIdentityByNino(nino)).thenReturn(Optional.of(savedIdentity));
+    when(service.getIdentityStatusByNino(nino)).thenReturn(Optional.of(savedStatus));
 
     ResponseEntity<IdvDto> expectedResponse = new ResponseEntity<>(
         new IdvDto().idvStatus(IdvDto.IdvStatusEnum.VERIFIED), HttpStatus.OK);
@@ -102,7 +97,7 @@ class IdentityControllerTest {
   @Test
   void getIdentityByNino_returns404_whenNoIdentityFound() {
     String nino = "RN000010A";
-    when(service.getIdentityByNino(nino)).thenReturn(Optional.empty());
+    when(service.getIdentityStatusByNino(nino)).thenReturn(Optional.empty());
 
     ResponseEntity<IdvDto> expectedResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
     ResponseEntity<IdvDto> actualResponse = controller.getIdentityByNino(nino);
@@ -113,12 +108,11 @@ class IdentityControllerTest {
   @Test
   void getIdentityByApplicationId_returns200_whenSuccessfullyFound() {
     var applicationId = "507f1f77bcf86cd799439011";
-    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
+    IdentitySummary savedSummary =
+        new IdentitySummary(applicationId, "RN000010A", "test@dwp.gov.uk");
 
-    Identity savedIdentity = new Identity("id", "test@dwp.gov.uk", identityId, dateTime, OIDV,
-        "verified", "RN000010A", applicationId, "", null);
-
-    when(service.getIdentityByApplicationId(applicationId)).thenReturn(Optional.of(savedIdentity));
+    when(service.getIdentitySummaryByApplicationId(applicationId))
+        .thenReturn(Optional.of(savedSummary));
 
     ResponseEntity<IdentityDto> actualResponse = controller.getIdentityByApplicationId(
         applicationId);
@@ -131,7 +125,7 @@ class IdentityControllerTest {
   @Test
   void getIdentityByApplicationId_returns404_whenNoIdentityFound() {
     var applicationId = "507f1f77bcf86cd799439011";
-    when(service.getIdentityByApplicationId(applicationId)).thenReturn(Optional.empty());
+    when(service.getIdentitySummaryByApplicationId(applicationId)).thenReturn(Optional.empty());
 
     ResponseEntity<IdentityDto> expectedResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
     ResponseEntity<IdentityDto> actualResponse = controller.getIdentityByApplicationId(
@@ -143,12 +137,10 @@ class IdentityControllerTest {
   @Test
   void getIdentityById_returns200_whenSuccessfullyFound() {
     var id = "507f1f77bcf86cd799439011";
-    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
-
-    Identity savedIdentity = new Identity(id, "test@dwp.gov.uk", identityId, dateTime, OIDV,
-        "verified", "RN000010A", "applicationId", "", null);
+    IdentitySummary savedSummary =
+        new IdentitySummary("applicationId", "RN000010A", "test@dwp.gov.uk");
 
-    when(service.getIdentityById(id)).thenReturn(Optional.of(savedIdentity));
+    when(service.getIdentitySummaryById(id)).thenReturn(Optional.of(savedSummary));
 
     ResponseEntity<IdentityDto> actualResponse = controller.getIdentityById(id);
     assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
@@ -160,7 +152,7 @@ class IdentityControllerTest {
   @Test
   void getIdentityById_returns404_whenNoIdentityFound() {
     var id = "507f1f77bcf86cd799439011";
-    when(service.getIdentityById(id)).thenReturn(Optional.empty());
+    when(service.getIdentitySummaryById(id)).thenReturn(Optional.empty());
 
     ResponseEntity<IdentityDto> expectedResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
     ResponseEntity<IdentityDto> actualResponse = controller.getIdentityById(id);
@@ -174,7 +166,7 @@ class IdentityControllerTest {
         "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
         + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
     IdentityResponse2 ref = new IdentityResponse2().ref("12435668768979");
-    when(registrationService.register(contains("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
         IdentityResponseDto.of(false, ref));
     ResponseEntity<IdentityResponse> registered = controller.register(dummy_token, OIDV, false);
     Assertions.assertThat(registered).extracting(ResponseEntity::getStatusCode)
@@ -187,7 +179,7 @@ class IdentityControllerTest {
         "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
         + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
     IdentityResponse2 ref = new IdentityResponse2().ref("12435668768979");
-    when(registrationService.register(contains("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
         IdentityResponseDto.of(true, ref));
     ResponseEntity<IdentityResponse> registered = controller.register(dummy_token, OIDV, false);
     Assertions.assertThat(registered).extracting(ResponseEntity::getStatusCode)
@@ -200,7 +192,7 @@ class IdentityControllerTest {
         "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
         + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
     IdentityResponseDto ref = IdentityResponseDto.of(false, new IdentityResponse2());
-    when(registrationService.register(contains("abc@gmail.com"), eq(OIDV), eq(true))).thenReturn(ref);
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(true))).thenReturn(ref);
     ResponseEntity<IdentityResponse> registered = controller.register(dummy_token, OIDV, true);
     Assertions.assertThat(registered).extracting(ResponseEntity::getStatusCode)
         .isEqualTo(HttpStatus.OK);
@@ -224,7 +216,7 @@ class IdentityControllerTest {
     String dummy_token = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJ"
                          + "hYmNAZ21haWwuY29tIiwiaWF0IjoxNTE2MjM5MDIyfQ.hxyJgLgDMDhoxK1QTqiAB6WNYkDFfUD_az0RmFanu7g";
     IdentityResponse2 ref = new IdentityResponse2().ref("12435668768979");
-    when(registrationService.register(contains("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(false))).thenReturn(
         IdentityResponseDto.of(false, ref));
     ResponseEntity<IdentityResponse> registered = controller.register(dummy_token, OIDV, false);
     Assertions.assertThat(registered).extracting(ResponseEntity::getStatusCode)
@@ -279,4 +271,9 @@ class IdentityControllerTest {
     Assertions.assertThat(response).extracting(ResponseEntity::getStatusCode)
         .isEqualTo(HttpStatus.NOT_FOUND);
   }
+
+  private static byte[] payloadContaining(String text) {
+    return argThat(payload -> new String(payload, StandardCharsets.UTF_8).contains(text));
+  }
+
 }
@@ -0,0 +1,89 @@
+package uk.gov.dwp.health.pip.identity.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.identity.status.openapi.model.IdentityResponse2;
+import uk.gov.dwp.health.pip.identity.exception.ConflictException;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
+import uk.gov.dwp.health.pip.identity.service.ReactiveIdentityRegistrationService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveIdentityControllerV2Test {
+
+  private static final String OIDV = IdentityRequestUpdateSchemaV1.Channel.OIDV.value();
+  private static final String NINO = "nino";
+  private static final String TOKEN =
+      "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
+      + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
+
+  @Mock
+  private ReactiveIdentityRegistrationService registrationService;
+  private ReactiveIdentityControllerV2 controller;
+
+  @BeforeEach
+  void setUp() {
+    controller = new ReactiveIdentityControllerV2(registrationService);
+  }
+
+  @Test
+  void shouldReturn201WhenReactivePipelineCreatesIdentity() {
+    IdentityResponse2 ref = new IdentityResponse2().ref("12435668768979").nino(NINO);
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(false)))
+        .thenReturn(Mono.just(IdentityResponseDto.of(true, ref)));
+
+    ResponseEntity<IdentityResponse2> registered =
+        controller.registerV2(TOKEN, OIDV, false).block();
+
+    assertThat(registered.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertThat(registered.getBody().getNino()).isEqualTo(NINO);
+  }
+
+  @Test
+  void shouldReturn200WithNoBodyWhenReactivePipelinePublishes() {
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(true)))
+        .thenReturn(Mono.empty());
+
+    ResponseEntity<IdentityResponse2> registered =
+        controller.registerV2(TOKEN, OIDV, true).block();
+
+    assertThat(registered.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(registered.hasBody()).isFalse();
+  }
+
+  @Test
+  void shouldDoNothingUntilSubscribed() {
+    controller.registerV2(TOKEN, OIDV, false);
+
+    verifyNoInteractions(registrationService);
+  }
+
+  @Test
+  void shouldSignalRegistrationErrorsThroughTheMono() {
+    when(registrationService.register(payloadContaining("abc@gmail.com"), eq(OIDV), eq(false)))
+        .thenReturn(Mono.error(new ConflictException("account exists")));
+
+    Mono<ResponseEntity<IdentityResponse2>> registered = controller.registerV2(TOKEN, OIDV, false);
+
+    assertThatThrownBy(registered::block).isInstanceOf(ConflictException.class);
+  }
+
+  private static byte[] payloadContaining(String text) {
+    return argThat(payload -> new String(payload, StandardCharsets.UTF_8).contains(text));
+  }
+}
@@ -0,0 +1,128 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mongodb.client.MongoDatabase;
+import jakarta.annotation.Resource;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+@Import(MongoIndexInitializer.class)
+class MongoIndexInitializerTest {
+
+  private static final String NINO_STATUS_KEY = "IXSCAN { nino: 1, vot: 1, idvStatus: 1 }";
+  private static final String SUBJECT_ID_STATUS_KEY =
+      "IXSCAN { subjectId: 1, vot: 1, idvStatus: 1, nino: 1 }";
+
+  @Resource private MongoTemplate mongoTemplate;
+  @Resource private MongoIndexInitializer mongoIndexInitializer;
+  @Resource private IdentityRepository identityRepository;
+
+  @BeforeEach
+  void setup() {
+    mongoTemplate.dropCollection(Identity.class);
+    mongoIndexInitializer.ensureIndexes();
+    mongoTemplate.save(
+        Identity.builder()
+            .subjectId("positive@dwp.gov.uk")
+            .nino("RN000003A")
+            .vot("P2.Cl.Cm")
+            .idvStatus("verified")
+            .applicationID("5ed0d430716609122be7a4d6")
+            .build());
+    // Enough other identities that the single field indexes are a real alternative to the planner
+    for (int i = 0; i < 200; i++) {
+      mongoTemplate.save(
+          Identity.builder()
+              .subjectId("user" + i + "@dwp.gov.uk")
+              .nino(String.format("RN%06dB", i))
+              .vot("P0.Cl.Cm")
+              .idvStatus("unverified")
+              .applicationID(String.format("%024x", i))
+              .build());
+    }
+  }
+
+  @Test
+  void status_indexes_are_created() {
+    assertThat(mongoTemplate.indexOps(Identity.class).getIndexInfo())
+        .extracting(IndexInfo::getName)
+        .contains(
+            MongoIndexInitializer.NINO_STATUS_INDEX,
+            MongoIndexInitializer.SUBJECT_ID_STATUS_INDEX,
+            MongoIndexInitializer.PENDING_DISTRIBUTION_INDEX);
+  }
+
+  @Test
+  void status_lookup_by_nino_is_covered() {
+    final Document profiled =
+        profile(
+            () ->
+                assertThat(identityRepository.findStatusByNino("RN000003A"))
+                    .contains(new IdentityStatus("RN000003A", "P2.Cl.Cm", "verified")));
+
+    assertCovered(profiled, NINO_STATUS_KEY);
+  }
+
+  @Test
+  void status_lookup_by_subject_id_is_covered() {
+    final Document profiled =
+        profile(
+            () ->
+                assertThat(identityRepository.findStatusBySubjectId("positive@dwp.gov.uk"))
+                    .contains(new IdentityStatus("RN000003A", "P2.Cl.Cm", "verified")));
+
+    assertCovered(profiled, SUBJECT_ID_STATUS_KEY);
+  }
+
+  @Test
+  void bulk_status_lookup_by_nino_is_covered() {
+    final Document profiled =
+        profile(
+            () ->
+                assertThat(identityRepository.findStatusByNinoIn(List.of("RN000003A", "RN000009A")))
+                    .containsExactly(new IdentityStatus("RN000003A", "P2.Cl.Cm", "verified")));
+
+    assertCovered(profiled, NINO_STATUS_KEY);
+  }
+
+  // Records the query the repository actually sends, with the plan the server chose for it
+  private Document profile(Runnable repositoryCall) {
+    final MongoDatabase database = mongoTemplate.getDb();
+    database.runCommand(new Document("profile", 0));
+    database.getCollection("system.profile").drop();
+    database.runCommand(new Document("profile", 2));
+    try {
+      repositoryCall.run();
+    } finally {
+      database.runCommand(new Document("profile", 0));
+    }
+    final String namespace =
+        database.getName() + "." + mongoTemplate.getCollectionName(Identity.class);
+    return database
+        .getCollection("system.profile")
+        .find(new Document("ns", namespace).append("op", "query"))
+        .sort(new Document("ts", -1))
+        .first();
+  }
+
+  private static void assertCovered(Document profiled, String planSummary) {
+    assertThat(profiled).isNotNull();
+    assertThat(profiled.getString("planSummary")).contains(planSummary);
+    assertThat(profiled.getInteger("keysExamined")).isPositive();
+    assertThat(profiled.getInteger("docsExamined")).isZero();
+  }
+}
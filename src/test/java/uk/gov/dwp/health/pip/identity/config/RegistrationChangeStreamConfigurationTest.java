@@ -0,0 +1,69 @@
+package uk.gov.dwp.health.pip.identity.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.annotation.Resource;
+import java.time.Duration;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.test.context.TestPropertySource;
+import uk.gov.dwp.health.pip.identity.config.properties.ApplicationProperties;
+import uk.gov.dwp.health.pip.identity.entity.Registration;
+import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+import uk.gov.dwp.health.pip.identity.service.RegistrationsLimiterGetter;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+@Import({
+  RegistrationChangeStreamConfiguration.class,
+  RegistrationsLimiterGetter.class,
+  ApplicationProperties.class
+})
+@TestPropertySource(
+    properties = {
+      "feature.data.changestream.enabled=true",
+      // Change streams are only available on a replica set
+      "de.flapdoodle.mongodb.embedded.storage.repl-set-name=rs0",
+      "application.account-registrations-limit=1",
+      "application.registrations-count-cache-ttl=1h"
+    })
+class RegistrationChangeStreamConfigurationTest {
+
+  @Resource private MongoTemplate mongoTemplate;
+  @Resource private RegistrationRepository registrationRepository;
+  @Resource private RegistrationsLimiterGetter registrationsLimiterGetter;
+  @Resource private MessageListenerContainer registrationChangeStreamContainer;
+
+  @BeforeEach
+  void setup() {
+    // Dropping the collection would invalidate the open change stream
+    mongoTemplate.remove(Registration.class).all();
+  }
+
+  @Test
+  void the_change_stream_container_is_running() {
+    assertThat(registrationChangeStreamContainer.isRunning()).isTrue();
+  }
+
+  @Test
+  void when_the_registration_count_is_written_the_cached_count_is_evicted() {
+    assertThat(registrationsLimiterGetter.getRegistrationsLimiter().isLimitReached()).isFalse();
+
+    // The cache outlives the test, so only an eviction can show the new count. The write is
+    // repeated as the change stream cursor may not be open yet when the first one is made
+    Awaitility.await()
+        .atMost(Duration.ofSeconds(10))
+        .until(
+            () -> {
+              registrationRepository.incrementRegistrationCount();
+              return registrationsLimiterGetter.getRegistrationsLimiter().isLimitReached();
+            });
+  }
+}
@@ -0,0 +1,144 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.dwp.health.integration.message.events.EventManager;
+import uk.gov.dwp.health.pip.identity.config.properties.BufferedEventPublishProperties;
+import uk.gov.dwp.health.pip.identity.exception.PublishBufferFullException;
+
+@ExtendWith(MockitoExtension.class)
+class BufferedEventPublisherTest {
+
+  @Mock private EventManager eventManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private BufferedEventPublisher publisher;
+
+  @AfterEach
+  void afterEach() {
+    publisher.stop();
+  }
+
+  @Test
+  void enqueued_events_are_sent_off_the_calling_thread() {
+    publisher = new BufferedEventPublisher(eventManager, properties(10), meterRegistry);
+    PipIdentityGuidEvent event = event("first");
+
+    publisher.enqueue(event);
+
+    verify(eventManager, timeout(1000)).send(event);
+  }
+
+  @Test
+  void failed_events_are_retried() {
+    publisher = new BufferedEventPublisher(eventManager, properties(10), meterRegistry);
+    PipIdentityGuidEvent event = event("first");
+    doThrow(new RuntimeException("sns unavailable"))
+        .doNothing()
+        .when(eventManager)
+        .send(event);
+
+    publisher.enqueue(event);
+
+    verify(eventManager, timeout(1000).times(2)).send(event);
+  }
+
+  @Test
+  void events_are_dropped_and_counted_after_max_attempts() {
+    publisher = new BufferedEventPublisher(eventManager, properties(10), meterRegistry);
+    PipIdentityGuidEvent event = event("first");
+    doThrow(new RuntimeException("sns unavailable")).when(eventManager).send(event);
+
+    publisher.enqueue(event);
+
+    verify(eventManager, timeout(1000).times(3)).send(event);
+    verify(eventManager, after(200).times(3)).send(event);
+    assertThat(meterRegistry.counter("identity.events.publish.dropped").count()).isEqualTo(1);
+  }
+
+  @Test
+  void a_full_buffer_rejects_the_event() throws InterruptedException {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              sending.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(eventManager)
+        .send(any());
+    BufferedEventPublishProperties properties = properties(1);
+    properties.setWorkers(1);
+    publisher = new BufferedEventPublisher(eventManager, properties, meterRegistry);
+
+    publisher.enqueue(event("in flight"));
+    assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+    publisher.enqueue(event("buffered"));
+
+    assertThatThrownBy(() -> publisher.enqueue(event("rejected")))
+        .isInstanceOf(PublishBufferFullException.class);
+    assertThat(publisher.bufferDepth()).isEqualTo(1);
+    release.countDown();
+    verify(eventManager, timeout(1000).times(2)).send(any());
+  }
+
+  @Test
+  void events_enqueued_after_stopping_are_rejected() {
+    publisher = new BufferedEventPublisher(eventManager, properties(10), meterRegistry);
+    publisher.stop();
+
+    assertThatThrownBy(() -> publisher.enqueue(event("late")))
+        .isInstanceOf(PublishBufferFullException.class);
+    assertThat(publisher.bufferDepth()).isZero();
+  }
+
+  @Test
+  void events_are_sent_by_several_workers_at_once() throws InterruptedException {
+    CountDownLatch sending = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              sending.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return null;
+            })
+        .when(eventManager)
+        .send(any());
+    publisher = new BufferedEventPublisher(eventManager, properties(10), meterRegistry);
+
+    publisher.enqueue(event("first"));
+    publisher.enqueue(event("second"));
+
+    assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+  }
+
+  private static BufferedEventPublishProperties properties(int capacity) {
+    BufferedEventPublishProperties properties = new BufferedEventPublishProperties();
+    properties.setCapacity(capacity);
+    properties.setRetryBackoff(Duration.ofMillis(10));
+    return properties;
+  }
+
+  private static PipIdentityGuidEvent event(String subject) {
+    return new PipIdentityGuidEvent("topic", "routing", Map.of("subject_id", subject));
+  }
+}
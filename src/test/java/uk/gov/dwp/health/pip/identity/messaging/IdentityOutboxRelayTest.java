@@ -0,0 +1,180 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Resource;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+@Import({IdentityOutboxRelay.class, IdentityOutboxProperties.class, SimpleMeterRegistry.class})
+@TestPropertySource(
+    properties = {
+      "uk.gov.dwp.identity.outbox.enabled=true",
+      "uk.gov.dwp.identity.outbox.max-attempts=2",
+      "uk.gov.dwp.identity.outbox.batch-size=2"
+    })
+class IdentityOutboxRelayTest {
+
+  @Resource private MongoTemplate mongoTemplate;
+  @Resource private IdentityOutboxRelay identityOutboxRelay;
+  @Resource private SimpleMeterRegistry meterRegistry;
+  @MockitoBean private IdvUpdateMessageDistributor idvUpdateMessageDistributor;
+
+  @BeforeEach
+  void setup() {
+    mongoTemplate.dropCollection(Identity.class);
+  }
+
+  @Test
+  void pending_event_is_sent_and_cleared() {
+    var event = pending(0, null);
+    var stored = save("RN000001A", event);
+
+    identityOutboxRelay.relay();
+
+    verify(idvUpdateMessageDistributor, times(1)).distribute(event);
+    assertThat(mongoTemplate.findById(stored.getId(), Identity.class).getPendingDistribution())
+        .isNull();
+  }
+
+  @Test
+  void records_without_pending_events_are_ignored() {
+    save("RN000001A", null);
+
+    identityOutboxRelay.relay();
+
+    verify(idvUpdateMessageDistributor, never()).distribute(any(PendingDistribution.class));
+  }
+
+  @Test
+  void failed_send_is_kept_with_attempt_counted() {
+    var event = pending(0, null);
+    var stored = save("RN000001A", event);
+    doThrow(new IllegalStateException("sns unavailable"))
+        .when(idvUpdateMessageDistributor)
+        .distribute(event);
+
+    identityOutboxRelay.relay();
+
+    var remaining = mongoTemplate.findById(stored.getId(), Identity.class).getPendingDistribution();
+    assertThat(remaining.getEventId()).isEqualTo(event.getEventId());
+    assertThat(remaining.getAttempts()).isOne();
+    assertThat(remaining.getClaimedUntil()).isNull();
+  }
+
+  @Test
+  void event_claimed_by_another_instance_is_skipped() {
+    save("RN000001A", pending(0, Instant.now().plus(1, ChronoUnit.MINUTES)));
+
+    identityOutboxRelay.relay();
+
+    verify(idvUpdateMessageDistributor, never()).distribute(any(PendingDistribution.class));
+  }
+
+  @Test
+  void events_claimed_by_another_instance_do_not_fill_the_batch() {
+    save("RN000001A", pending(0, Instant.now().plus(1, ChronoUnit.MINUTES)));
+    save("RN000002A", pending(0, Instant.now().plus(1, ChronoUnit.MINUTES)));
+    var event = pending(0, null);
+    save("RN000003A", event);
+
+    identityOutboxRelay.relay();
+
+    verify(idvUpdateMessageDistributor, times(1)).distribute(event);
+  }
+
+  @Test
+  void events_in_a_batch_are_sent_concurrently() {
+    var first = pending(0, null);
+    var second = pending(0, null);
+    save("RN000001A", first);
+    save("RN000002A", second);
+    var bothSending = new CountDownLatch(2);
+    doAnswer(
+            invocation -> {
+              bothSending.countDown();
+              if (!bothSending.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("events were sent one at a time");
+              }
+              return null;
+            })
+        .when(idvUpdateMessageDistributor)
+        .distribute(any(PendingDistribution.class));
+
+    identityOutboxRelay.relay();
+
+    assertThat(mongoTemplate.findAll(Identity.class))
+        .allSatisfy(identity -> assertThat(identity.getPendingDistribution()).isNull());
+  }
+
+  @Test
+  void event_failing_its_last_attempt_is_counted_as_abandoned() {
+    var event = pending(1, null);
+    save("RN000001A", event);
+    doThrow(new IllegalStateException("sns unavailable"))
+        .when(idvUpdateMessageDistributor)
+        .distribute(event);
+    var before = meterRegistry.counter("identity.outbox.events.abandoned").count();
+
+    identityOutboxRelay.relay();
+
+    assertThat(meterRegistry.counter("identity.outbox.events.abandoned").count())
+        .isEqualTo(before + 1);
+  }
+
+  @Test
+  void event_past_max_attempts_is_left_for_investigation() {
+    var stored = save("RN000001A", pending(2, null));
+
+    identityOutboxRelay.relay();
+
+    verify(idvUpdateMessageDistributor, never()).distribute(any(PendingDistribution.class));
+    assertThat(mongoTemplate.findById(stored.getId(), Identity.class).getPendingDistribution())
+        .isNotNull();
+  }
+
+  private Identity save(String nino, PendingDistribution event) {
+    return mongoTemplate.save(
+        Identity.builder()
+            .nino(nino)
+            .identityId(UUID.randomUUID())
+            .idvStatus("verified")
+            .pendingDistribution(event)
+            .build());
+  }
+
+  private static PendingDistribution pending(int attempts, Instant claimedUntil) {
+    return new PendingDistribution(
+        UUID.randomUUID().toString(),
+        "5ed0d430716609122be7a4d6",
+        "verified",
+        UUID.randomUUID().toString(),
+        Instant.now().truncatedTo(ChronoUnit.MILLIS),
+        attempts,
+        claimedUntil);
+  }
+}
@@ -0,0 +1,192 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.dwp.health.pip.identity.config.properties.IdvOutcomeBatchProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.exception.NoKeyChangesToExistingRecordException;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.UpliftOutcome;
+import uk.gov.dwp.health.pip.identity.service.IdentityService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdvOutcomeBatcherTest {
+
+  @Mock private IdentityService identityService;
+
+  private IdvOutcomeBatcher batcher;
+
+  @AfterEach
+  void afterEach() {
+    batcher.stop();
+  }
+
+  @Test
+  void concurrent_messages_are_read_and_written_together_and_planned_on_their_own_threads() {
+    batcher = new IdvOutcomeBatcher(identityService, properties(2, Duration.ofSeconds(5)));
+    Set<String> planningThreads = ConcurrentHashMap.newKeySet();
+    readsNothing();
+    when(identityService.planUpliftedIdentity(any(), anyList()))
+        .thenAnswer(
+            invocation -> {
+              planningThreads.add(Thread.currentThread().getName());
+              return insert(invocation.getArgument(0));
+            });
+    when(identityService.applyUpliftChanges(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<IdentityChange>>getArgument(0).stream()
+                    .map(
+                        change ->
+                            "RN000001A".equals(change.getUpdated().getNino())
+                                ? UpliftOutcome.recorded(change.getUpdated())
+                                : UpliftOutcome.failed(
+                                    new NoKeyChangesToExistingRecordException("no change")))
+                    .toList());
+    IdentityRequestUpdateSchemaV1 first = request("RN000001A");
+    IdentityRequestUpdateSchemaV1 second = request("RN000002A");
+
+    CompletableFuture<Identity> firstResult =
+        CompletableFuture.supplyAsync(() -> batcher.record(first));
+    awaitQueued(firstResult);
+    CompletableFuture<Identity> secondResult =
+        CompletableFuture.supplyAsync(() -> batcher.record(second));
+
+    assertThat(firstResult.join().getNino()).isEqualTo("RN000001A");
+    assertThatThrownBy(secondResult::join)
+        .hasCauseInstanceOf(NoKeyChangesToExistingRecordException.class);
+
+    ArgumentCaptor<List<IdentityRequestUpdateSchemaV1>> reads =
+        ArgumentCaptor.forClass(List.class);
+    verify(identityService, times(1)).findUpliftCandidates(reads.capture());
+    assertThat(reads.getValue()).containsExactly(first, second);
+    verify(identityService, times(1)).applyUpliftChanges(anyList());
+    assertThat(planningThreads).hasSize(2).noneMatch(name -> name.startsWith("idv-outcome"));
+  }
+
+  @Test
+  void a_change_left_out_of_the_bulk_write_is_recorded_on_its_own() {
+    batcher = new IdvOutcomeBatcher(identityService, properties(1, Duration.ZERO));
+    Identity identity = Identity.builder().nino("RN000001A").build();
+    IdentityRequestUpdateSchemaV1 request = request("RN000001A");
+    readsNothing();
+    when(identityService.planUpliftedIdentity(any(), anyList())).thenReturn(insert(request));
+    when(identityService.applyUpliftChanges(anyList()))
+        .thenReturn(List.of(UpliftOutcome.notApplied()));
+    when(identityService.recordUpliftedIdentity(request)).thenReturn(identity);
+
+    assertThat(batcher.record(request)).isSameAs(identity);
+  }
+
+  @Test
+  void a_failed_read_fails_every_message_in_the_batch() {
+    batcher = new IdvOutcomeBatcher(identityService, properties(2, Duration.ofSeconds(5)));
+    when(identityService.findUpliftCandidates(anyList()))
+        .thenThrow(new IllegalStateException("lookup failed"));
+    IdentityRequestUpdateSchemaV1 first = request("RN000001A");
+    IdentityRequestUpdateSchemaV1 second = request("RN000002A");
+
+    CompletableFuture<Identity> firstResult =
+        CompletableFuture.supplyAsync(() -> batcher.record(first));
+    awaitQueued(firstResult);
+    CompletableFuture<Identity> secondResult =
+        CompletableFuture.supplyAsync(() -> batcher.record(second));
+
+    assertThatThrownBy(firstResult::join).hasCauseInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(secondResult::join).hasCauseInstanceOf(IllegalStateException.class);
+    verify(identityService, never()).applyUpliftChanges(anyList());
+  }
+
+  @Test
+  void a_message_that_times_out_before_its_batch_starts_is_left_out_of_it() {
+    IdvOutcomeBatchProperties properties = properties(2, Duration.ofMillis(300));
+    properties.setTimeout(Duration.ofMillis(50));
+    batcher = new IdvOutcomeBatcher(identityService, properties);
+
+    assertThatThrownBy(() -> batcher.record(request("RN000001A")))
+        .isInstanceOf(GenericRuntimeException.class);
+
+    verify(identityService, after(500).never()).findUpliftCandidates(anyList());
+  }
+
+  @Test
+  void a_message_already_in_a_running_batch_waits_for_it_past_the_timeout() {
+    IdvOutcomeBatchProperties properties = properties(1, Duration.ZERO);
+    properties.setTimeout(Duration.ofMillis(50));
+    batcher = new IdvOutcomeBatcher(identityService, properties);
+    IdentityRequestUpdateSchemaV1 request = request("RN000001A");
+    CountDownLatch slowWrite = new CountDownLatch(1);
+    readsNothing();
+    when(identityService.planUpliftedIdentity(any(), anyList())).thenReturn(insert(request));
+    when(identityService.applyUpliftChanges(anyList()))
+        .thenAnswer(
+            invocation -> {
+              slowWrite.await(300, TimeUnit.MILLISECONDS);
+              return List.of(
+                  UpliftOutcome.recorded(
+                      invocation.<List<IdentityChange>>getArgument(0).get(0).getUpdated()));
+            });
+
+    assertThat(batcher.record(request).getNino()).isEqualTo("RN000001A");
+  }
+
+  private void readsNothing() {
+    when(identityService.findUpliftCandidates(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<IdentityRequestUpdateSchemaV1>>getArgument(0).stream()
+                    .map(request -> List.<Identity>of())
+                    .toList());
+  }
+
+  // Keeps the two submissions in order so the batch contents can be asserted
+  private static void awaitQueued(CompletableFuture<Identity> result) {
+    try {
+      Thread.sleep(100);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    assertThat(result).isNotDone();
+  }
+
+  private static IdvOutcomeBatchProperties properties(int maxSize, Duration linger) {
+    IdvOutcomeBatchProperties properties = new IdvOutcomeBatchProperties();
+    properties.setMaxSize(maxSize);
+    properties.setLinger(linger);
+    return properties;
+  }
+
+  private static IdentityChange insert(IdentityRequestUpdateSchemaV1 request) {
+    return IdentityChange.insert(Identity.builder().nino(request.getNino()).build());
+  }
+
+  private static IdentityRequestUpdateSchemaV1 request(String nino) {
+    IdentityRequestUpdateSchemaV1 request = new IdentityRequestUpdateSchemaV1();
+    request.setNino(nino);
+    return request;
+  }
+}
@@ -0,0 +1,215 @@
+package uk.gov.dwp.health.pip.identity.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Resource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import uk.gov.dwp.health.pip.identity.config.properties.IdvOutcomeIdempotencyProperties;
+import uk.gov.dwp.health.pip.identity.entity.ProcessedIdvOutcome;
+import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+class IdvOutcomeIdempotencyStoreTest {
+
+  @Resource private MongoTemplate mongoTemplate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private IdvOutcomeIdempotencyStore store;
+
+  @BeforeEach
+  void setup() {
+    mongoTemplate.dropCollection(ProcessedIdvOutcome.class);
+    meterRegistry = new SimpleMeterRegistry();
+    store = newStore(1_000, meterRegistry);
+  }
+
+  @Test
+  void ttl_index_is_created() {
+    assertThat(mongoTemplate.indexOps(ProcessedIdvOutcome.class).getIndexInfo())
+        .extracting(IndexInfo::getName)
+        .contains(IdvOutcomeIdempotencyStore.TTL_INDEX);
+  }
+
+  @Test
+  void an_unseen_message_is_claimed() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+
+    assertThat(store.claim(message)).isTrue();
+    assertThat(mongoTemplate.findById(key(message), ProcessedIdvOutcome.class).getInProgress())
+        .isTrue();
+  }
+
+  @Test
+  void a_processed_message_is_a_duplicate() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    store.claim(message);
+    store.markProcessed(message);
+
+    assertThat(store.claim(message)).isFalse();
+    assertThat(meterRegistry.get("identity.idv.outcome.duplicates").counter().count()).isOne();
+  }
+
+  @Test
+  void the_same_identity_with_a_later_timestamp_is_not_a_duplicate() {
+    var identityId = UUID.randomUUID();
+    store.markProcessed(message(identityId, "01-01-2025 10:00:00"));
+
+    assertThat(store.claim(message(identityId, "01-01-2025 10:05:00"))).isTrue();
+  }
+
+  @Test
+  void a_message_claimed_by_another_instance_is_retried_while_it_is_processed() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    assertThat(newStore().claim(message)).isTrue();
+
+    assertThatThrownBy(() -> store.claim(message)).isInstanceOf(GenericRuntimeException.class);
+  }
+
+  @Test
+  void a_message_processed_by_another_instance_before_a_refresh_is_a_duplicate() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    var otherInstance = newStore();
+    otherInstance.claim(message);
+    otherInstance.markProcessed(message);
+
+    assertThat(store.claim(message)).isFalse();
+  }
+
+  @Test
+  void a_released_message_can_be_claimed_again() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    store.claim(message);
+
+    store.release(message);
+
+    assertThat(store.claim(message)).isTrue();
+  }
+
+  @Test
+  void releasing_a_processed_message_keeps_it_a_duplicate() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    store.claim(message);
+    store.markProcessed(message);
+
+    store.release(message);
+
+    assertThat(store.claim(message)).isFalse();
+  }
+
+  @Test
+  void an_abandoned_claim_is_taken_over_after_the_claim_timeout() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    var claimedAt = Instant.now();
+    mongoTemplate.insert(new ProcessedIdvOutcome(key(message), claimedAt, true));
+    var properties = new IdvOutcomeIdempotencyProperties();
+    var afterTimeout = claimedAt.plus(properties.getClaimTimeout()).plusSeconds(1);
+    var laterStore =
+        new IdvOutcomeIdempotencyStore(
+            mongoTemplate,
+            properties,
+            new SimpleMeterRegistry(),
+            Clock.fixed(afterTimeout, ZoneOffset.UTC));
+    laterStore.initialise();
+
+    assertThat(laterStore.claim(message)).isTrue();
+    assertThatThrownBy(() -> laterStore.claim(message))
+        .isInstanceOf(GenericRuntimeException.class);
+  }
+
+  @Test
+  void messages_processed_by_another_instance_are_found_after_a_refresh() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    mongoTemplate.save(new ProcessedIdvOutcome(key(message), Instant.now(), null));
+
+    store.refresh();
+
+    assertThat(store.claim(message)).isFalse();
+  }
+
+  @Test
+  void keys_reloaded_by_overlapping_refreshes_are_counted_once() {
+    store.markProcessed(message(UUID.randomUUID(), "01-01-2025 10:00:00"));
+    store.markProcessed(message(UUID.randomUUID(), "01-01-2025 10:05:00"));
+
+    store.refresh();
+    store.refresh();
+    store.refresh();
+
+    assertThat(meterRegistry.get("identity.idv.outcome.idempotency.keys").gauge().value())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void a_rebuild_keeps_reporting_processed_messages_as_duplicates() {
+    var rebuildingStore = newStore(1, new SimpleMeterRegistry());
+    var first = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    var second = message(UUID.randomUUID(), "01-01-2025 10:05:00");
+    rebuildingStore.markProcessed(first);
+    rebuildingStore.markProcessed(second);
+
+    rebuildingStore.refresh();
+
+    assertThat(rebuildingStore.claim(first)).isFalse();
+    assertThat(rebuildingStore.claim(second)).isFalse();
+  }
+
+  @Test
+  void a_rebuilt_filter_is_sized_from_the_live_keys_so_it_is_not_rebuilt_again() {
+    var rebuildingStore = newStore(1, new SimpleMeterRegistry());
+    rebuildingStore.markProcessed(message(UUID.randomUUID(), "01-01-2025 10:00:00"));
+    rebuildingStore.markProcessed(message(UUID.randomUUID(), "01-01-2025 10:05:00"));
+    rebuildingStore.markProcessed(message(UUID.randomUUID(), "01-01-2025 10:10:00"));
+
+    rebuildingStore.refresh();
+    assertThat(rebuildingStore.filterCapacity()).isEqualTo(6);
+    rebuildingStore.refresh();
+
+    assertThat(rebuildingStore.filterCapacity()).isEqualTo(6);
+  }
+
+  @Test
+  void messages_processed_before_startup_are_loaded() {
+    var message = message(UUID.randomUUID(), "01-01-2025 10:00:00");
+    store.markProcessed(message);
+
+    assertThat(newStore().claim(message)).isFalse();
+  }
+
+  private IdvOutcomeIdempotencyStore newStore() {
+    return newStore(1_000, new SimpleMeterRegistry());
+  }
+
+  private IdvOutcomeIdempotencyStore newStore(long expectedMessages, MeterRegistry registry) {
+    var properties = new IdvOutcomeIdempotencyProperties();
+    properties.setExpectedMessages(expectedMessages);
+    var idempotencyStore = new IdvOutcomeIdempotencyStore(mongoTemplate, properties, registry);
+    idempotencyStore.initialise();
+    return idempotencyStore;
+  }
+
+  private static String key(IdentityRequestUpdateSchemaV1 message) {
+    return message.getIdentityId() + "_" + message.getTimestamp();
+  }
+
+  private static IdentityRequestUpdateSchemaV1 message(UUID identityId, String timestamp) {
+    var message = new IdentityRequestUpdateSchemaV1();
+    message.setIdentityId(identityId);
+    message.setTimestamp(timestamp);
+    return message;
+  }
+}
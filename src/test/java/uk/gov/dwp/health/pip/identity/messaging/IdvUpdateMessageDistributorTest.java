@@ -7,9 +7,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.ApplicationRouting;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
 import uk.gov.dwp.health.pip.identity.service.CoordinatorService;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
@@ -55,8 +58,8 @@ public class IdvUpdateMessageDistributorTest {
 
     @Test
     void shouldPublishPipcsMessagesIfVotValueIsP2AndPipcsApplication() {
-      when(coordinatorService.isPipcsApplication(anyString()))
-          .thenReturn(true);
+      when(coordinatorService.resolveRouting(anyString()))
+          .thenReturn(ApplicationRouting.of(false, true));
       payload.setIdvOutcome(null);
       payload.setVot(IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM);
 
@@ -78,8 +81,8 @@ public class IdvUpdateMessageDistributorTest {
 
   @Test
   void shouldPublishCoordinatorMessagesIfVotValueIsP2AndPipServiceApplication() {
-    when(coordinatorService.isPipServiceApplication(anyString()))
-        .thenReturn(true);
+    when(coordinatorService.resolveRouting(anyString()))
+        .thenReturn(ApplicationRouting.of(true, false));
     payload.setIdvOutcome(null);
     payload.setVot(IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM);
 
@@ -99,8 +102,8 @@ public class IdvUpdateMessageDistributorTest {
 
     @Test
     void shouldPublishPipcsMessageIfIDVOutComeValueIsVerifiedAndPipcsApplication() {
-      when(coordinatorService.isPipcsApplication(anyString()))
-          .thenReturn(true);
+      when(coordinatorService.resolveRouting(anyString()))
+          .thenReturn(ApplicationRouting.of(false, true));
 
       Identity verifiedIdentity = Identity.builder()
           .idvStatus("verified")
@@ -117,8 +120,8 @@ public class IdvUpdateMessageDistributorTest {
 
   @Test
   void shouldPublishCoordinatorMessageIfIDVOutComeValueIsVerifiedAndPipServiceApplication() {
-    when(coordinatorService.isPipServiceApplication(anyString()))
-        .thenReturn(true);
+    when(coordinatorService.resolveRouting(anyString()))
+        .thenReturn(ApplicationRouting.of(true, false));
 
     Identity verifiedIdentity = Identity.builder()
         .idvStatus("verified")
@@ -143,11 +146,8 @@ public class IdvUpdateMessageDistributorTest {
           .identityId(identityId)
           .build();
 
-      when(coordinatorService.isPipcsApplication(applicationID))
-          .thenReturn(false);
-
-      when(coordinatorService.isPipcsApplication(applicationID))
-          .thenReturn(false);
+      when(coordinatorService.resolveRouting(applicationID))
+          .thenReturn(ApplicationRouting.of(false, false));
 
       idvUpdateMessageDistributor.distribute(payload,verifiedIdentity);
 
@@ -169,8 +169,44 @@ public class IdvUpdateMessageDistributorTest {
     verify(updateCoordinatorIdentityMessagePublisher, never()).publishMessage(any(), any(), any());
 
     verify(updatePipCsIdentityMessagePublisher, never()).publishMessage(any(), any(), any());
+    verify(coordinatorService, never()).resolveRouting(any());
+  }
+
+  @Test
+  void shouldResolveRoutingOnceAndPublishToBothWhenUnrouted() {
+    final String applicationID = "5ed0d430716609122be7a4d8";
+    when(coordinatorService.resolveRouting(applicationID))
+        .thenReturn(ApplicationRouting.UNROUTED);
+
+    Identity verifiedIdentity = Identity.builder()
+        .idvStatus("verified")
+        .applicationID(applicationID)
+        .identityId(identityId)
+        .build();
+
+    idvUpdateMessageDistributor.distribute(payload, verifiedIdentity);
+
+    verify(coordinatorService, times(1)).resolveRouting(applicationID);
+    verify(updateCoordinatorIdentityMessagePublisher, times(1))
+        .publishMessage(applicationID, "verified", String.valueOf(identityId));
+    verify(updatePipCsIdentityMessagePublisher, times(1))
+        .publishMessage(applicationID, "verified", String.valueOf(identityId));
   }
 
+  @Test
+  void shouldPublishPendingDistributionToItsRoutedTopic() {
+    final String applicationID = "5ed0d430716609122be7a4d8";
+    when(coordinatorService.resolveRouting(applicationID))
+        .thenReturn(ApplicationRouting.of(true, false));
+
+    idvUpdateMessageDistributor.distribute(
+        new PendingDistribution(
+            "event-id", applicationID, "verified", identityId.toString(), Instant.now(), 0, null));
+
+    verify(updateCoordinatorIdentityMessagePublisher, times(1))
+        .publishMessage(applicationID, "verified", String.valueOf(identityId));
+    verify(updatePipCsIdentityMessagePublisher, never()).publishMessage(any(), any(), any());
+  }
 
   private String getCurrentDate() {
     DateTimeFormatter format = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
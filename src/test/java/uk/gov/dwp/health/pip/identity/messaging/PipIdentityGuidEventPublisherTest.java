@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.integration.message.events.EventManager;
+import uk.gov.dwp.health.pip.identity.exception.PublishBufferFullException;
 import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdentityGuidEventProperties;
 import uk.gov.dwp.health.pip.identity.model.TokenPayload;
 import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
@@ -22,6 +24,7 @@ class PipIdentityGuidEventPublisherTest {
 
   @Mock private PipIdentityGuidEventProperties eventProperties;
   @Mock private EventManager eventManager;
+  @Mock private BufferedEventPublisher bufferedEventPublisher;
 
   private PipIdentityGuidEventPublisher guidEventPublisher;
 
@@ -29,7 +32,8 @@ class PipIdentityGuidEventPublisherTest {
 
   @BeforeEach
   void setUp() {
-    guidEventPublisher = new PipIdentityGuidEventPublisher(eventManager, eventProperties);
+    guidEventPublisher =
+        new PipIdentityGuidEventPublisher(eventManager, eventProperties, Optional.empty());
   }
 
   @Test
@@ -101,4 +105,33 @@ class PipIdentityGuidEventPublisherTest {
     assertThatThrownBy(() -> guidEventPublisher.publish(new TokenPayload()))
         .hasMessage("Error publishing Pip Identity guid event");
   }
+
+  @Test
+  void shouldEnqueueEventInsteadOfSendingWhenBufferedPublishingIsEnabled() {
+    when(eventProperties.getTopic()).thenReturn("pip_identity_event_guid");
+    guidEventPublisher =
+        new PipIdentityGuidEventPublisher(
+            eventManager, eventProperties, Optional.of(bufferedEventPublisher));
+
+    guidEventPublisher.publish(
+        TokenPayload.of("test@dwp.gov.uk", null, "13f03f9da3a0f493e04df091865f8e77f63"));
+
+    verify(bufferedEventPublisher).enqueue(eventArgumentCaptor.capture());
+    assertThat(eventArgumentCaptor.getValue().getTopic()).isEqualTo("pip_identity_event_guid");
+    verifyNoInteractions(eventManager);
+  }
+
+  @Test
+  void shouldPassOnBackpressureWhenBufferIsFull() {
+    guidEventPublisher =
+        new PipIdentityGuidEventPublisher(
+            eventManager, eventProperties, Optional.of(bufferedEventPublisher));
+    doThrow(new PublishBufferFullException("Outbound event buffer is full"))
+        .when(bufferedEventPublisher)
+        .enqueue(any());
+
+    assertThatThrownBy(() -> guidEventPublisher.publish(new TokenPayload()))
+        .isInstanceOf(PublishBufferFullException.class);
+    verifyNoInteractions(eventManager);
+  }
 }
@@ -15,17 +15,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.MessageHeaders;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
 import uk.gov.dwp.health.pip.identity.exception.NoKeyChangesToExistingRecordException;
 import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdvOutcomeInboundEventProperties;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.PendingDistribution;
 import uk.gov.dwp.health.pip.identity.service.IdentityService;
 import uk.gov.dwp.health.pip.identity.service.impl.IdentityBuilder;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +37,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -52,6 +57,7 @@ class PipIdvOutcomeMessageConsumerTest {
 
   @Mock
   private IdvUpdateMessageDistributor idvUpdateMessageDistributor;
+  private final IdentityOutboxProperties outboxProperties = new IdentityOutboxProperties();
   @Mock
   private PipIdvOutcomeMessageConsumer pipIdvOutcomeMessageConsumer;
   private IdentityRequestUpdateSchemaV1 payload;
@@ -72,7 +78,10 @@ class PipIdvOutcomeMessageConsumerTest {
             inboundEventProperties,
             validator,
             identityService,
-            idvUpdateMessageDistributor
+            idvUpdateMessageDistributor,
+            outboxProperties,
+            Optional.empty(),
+            Optional.empty()
         );
   }
 
@@ -207,6 +216,121 @@ class PipIdvOutcomeMessageConsumerTest {
     verify(idvUpdateMessageDistributor, never()).distribute(any(), any());
   }
 
+  @Test
+  void shouldRecordThroughBatcherWhenBatchingEnabled() {
+    IdvOutcomeBatcher idvOutcomeBatcher = mock(IdvOutcomeBatcher.class);
+    Identity identity = Identity.builder().identityId(identityId).build();
+    when(idvOutcomeBatcher.record(payload)).thenReturn(identity);
+    pipIdvOutcomeMessageConsumer =
+        new PipIdvOutcomeMessageConsumer(
+            inboundEventProperties,
+            validator,
+            identityService,
+            idvUpdateMessageDistributor,
+            outboxProperties,
+            Optional.of(idvOutcomeBatcher),
+            Optional.empty()
+        );
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(identityService, never()).recordUpliftedIdentity(any());
+    verify(idvUpdateMessageDistributor, times(1)).distribute(payload, identity);
+  }
+
+  @Test
+  void shouldDropDuplicateMessageBeforeRecordingIt() {
+    IdvOutcomeIdempotencyStore idempotencyStore = mock(IdvOutcomeIdempotencyStore.class);
+    when(idempotencyStore.claim(payload)).thenReturn(false);
+    pipIdvOutcomeMessageConsumer = consumerWithIdempotencyStore(idempotencyStore);
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(identityService, never()).recordUpliftedIdentity(any());
+    verify(idvUpdateMessageDistributor, never()).distribute(any(), any());
+    verify(idempotencyStore, never()).markProcessed(any());
+  }
+
+  @Test
+  void shouldMarkMessageProcessedOnceHandled() {
+    IdvOutcomeIdempotencyStore idempotencyStore = mock(IdvOutcomeIdempotencyStore.class);
+    when(idempotencyStore.claim(payload)).thenReturn(true);
+    when(identityService.recordUpliftedIdentity(payload))
+        .thenThrow(new NoKeyChangesToExistingRecordException("no change"));
+    pipIdvOutcomeMessageConsumer = consumerWithIdempotencyStore(idempotencyStore);
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(idempotencyStore, times(1)).markProcessed(payload);
+  }
+
+  @Test
+  void shouldReleaseMessageInsteadOfMarkingItProcessedWhenRecordingFails() {
+    IdvOutcomeIdempotencyStore idempotencyStore = mock(IdvOutcomeIdempotencyStore.class);
+    when(idempotencyStore.claim(payload)).thenReturn(true);
+    when(identityService.recordUpliftedIdentity(payload))
+        .thenThrow(new IllegalStateException("mongo unavailable"));
+    pipIdvOutcomeMessageConsumer = consumerWithIdempotencyStore(idempotencyStore);
+
+    assertThatThrownBy(() -> pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload))
+        .isInstanceOf(IllegalStateException.class);
+    verify(idempotencyStore, times(1)).release(payload);
+    verify(idempotencyStore, never()).markProcessed(any());
+  }
+
+  @Test
+  void shouldLeaveDistributionToOutboxRelayWhenEventPending() {
+    outboxProperties.setEnabled(true);
+    Identity identity = identityWithPendingDistribution();
+    when(identityService.recordUpliftedIdentity(payload)).thenReturn(identity);
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(idvUpdateMessageDistributor, never()).distribute(any(), any());
+  }
+
+  @Test
+  void shouldDistributeWhenPendingEventWasNotWrittenByThisUpdate() {
+    outboxProperties.setEnabled(true);
+    payload.setIdvOutcome(IdentityRequestUpdateSchemaV1.IdvOutcome.fromValue("unverified"));
+    Identity identity = identityWithPendingDistribution();
+    when(identityService.recordUpliftedIdentity(payload)).thenReturn(identity);
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(idvUpdateMessageDistributor, times(1)).distribute(payload, identity);
+  }
+
+  @Test
+  void shouldDistributeWhenOutboxDisabledEvenIfEventPending() {
+    Identity identity = identityWithPendingDistribution();
+    when(identityService.recordUpliftedIdentity(payload)).thenReturn(identity);
+
+    pipIdvOutcomeMessageConsumer.handleMessage(messageHeaders, payload);
+
+    verify(idvUpdateMessageDistributor, times(1)).distribute(payload, identity);
+  }
+
+  private Identity identityWithPendingDistribution() {
+    return Identity.builder()
+        .identityId(identityId)
+        .pendingDistribution(new PendingDistribution(
+            "event-id", "applicationId", "verified", identityId.toString(), Instant.now(), 0, null))
+        .build();
+  }
+
+  private PipIdvOutcomeMessageConsumer consumerWithIdempotencyStore(
+      IdvOutcomeIdempotencyStore idempotencyStore) {
+    return new PipIdvOutcomeMessageConsumer(
+        inboundEventProperties,
+        validator,
+        identityService,
+        idvUpdateMessageDistributor,
+        outboxProperties,
+        Optional.empty(),
+        Optional.of(idempotencyStore));
+  }
+
   private String getCurrentDate() {
     DateTimeFormatter format = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
     LocalDateTime localDateTime = LocalDateTime.now();
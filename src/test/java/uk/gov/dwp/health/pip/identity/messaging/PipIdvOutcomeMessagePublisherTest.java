@@ -16,6 +16,7 @@ import uk.gov.dwp.health.pip.identity.messaging.properties.PipIdvOutcomeOutbound
 import uk.gov.dwp.health.pip.identity.model.TokenPayload;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -38,7 +39,8 @@ class PipIdvOutcomeMessagePublisherTest {
 
   @BeforeEach
   void setUp() {
-    messagePublisher = new PipIdvOutcomeMessagePublisher(eventManager, eventProperties);
+    messagePublisher =
+        new PipIdvOutcomeMessagePublisher(eventManager, eventProperties, Optional.empty());
     eventProperties.setRoutingKeyIdentityRequest("routingKey");
     eventProperties.setTopicNameIdentityRequest("topic");
   }
@@ -0,0 +1,224 @@
+package uk.gov.dwp.health.pip.identity.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.annotation.Resource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.AppliedChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityKeyInformation;
+import uk.gov.dwp.health.pip.identity.service.impl.IdentityBuilder;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+class IdentityRepositoryCustomImplTest {
+
+  @Resource private MongoTemplate mongoTemplate;
+  @Resource private IdentityRepository identityRepository;
+
+  private Identity stored;
+
+  @BeforeEach
+  void setup() {
+    mongoTemplate.dropCollection(Identity.class);
+    var identity =
+        Identity.builder()
+            .subjectId("positive@dwp.gov.uk")
+            .identityId(UUID.randomUUID())
+            .dateTime(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+            .channel("oidv")
+            .idvStatus("unverified")
+            .nino("RN000003A")
+            .applicationID("5ed0d430716609122be7a4d6")
+            .errorMessage("")
+            .vot("P0.Cl.Cm")
+            .build();
+    stored = identityRepository.save(identity);
+  }
+
+  @Test
+  void when_key_information_changed_only_differing_fields_are_updated() {
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored)
+            .subjectId("changed@dwp.gov.uk")
+            .idvStatus("verified")
+            .build();
+    var key =
+        IdentityKeyInformation.of("changed@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var result = identityRepository.updateIfKeyInformationChanged(stored, updated, key);
+
+    assertThat(result)
+        .hasValueSatisfying(
+            identity -> {
+              assertThat(identity.getId()).isEqualTo(stored.getId());
+              assertThat(identity.getSubjectId()).isEqualTo("changed@dwp.gov.uk");
+              assertThat(identity.getIdvStatus()).isEqualTo("verified");
+              assertThat(identity.getApplicationID()).isEqualTo("5ed0d430716609122be7a4d6");
+            });
+  }
+
+  @Test
+  void when_stored_key_information_already_matches_nothing_is_updated() {
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).channel("staff").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "unverified");
+
+    var result = identityRepository.updateIfKeyInformationChanged(stored, updated, key);
+
+    assertThat(result).isEmpty();
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(identity -> assertThat(identity.getChannel()).isEqualTo("oidv"));
+  }
+
+  @Test
+  void when_record_changed_since_it_was_read_nothing_is_updated() {
+    mongoTemplate.save(IdentityBuilder.createBuilderFromIdentity(stored).vot("P2.Cl.Cm").build());
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).idvStatus("verified").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var result = identityRepository.updateIfKeyInformationChanged(stored, updated, key);
+
+    assertThat(result).isEmpty();
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(
+            identity -> {
+              assertThat(identity.getVot()).isEqualTo("P2.Cl.Cm");
+              assertThat(identity.getIdvStatus()).isEqualTo("unverified");
+            });
+  }
+
+  @Test
+  void when_record_has_no_vot_an_empty_vot_is_treated_as_matching() {
+    mongoTemplate.save(IdentityBuilder.createBuilderFromIdentity(stored).vot(null).build());
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).vot(null).channel("staff").build();
+    var key = IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "", "unverified");
+
+    assertThat(identityRepository.updateIfKeyInformationChanged(stored, updated, key)).isEmpty();
+  }
+
+  @Test
+  void when_field_removed_from_updated_record_it_is_unset() {
+    var upliftDetails = new UpliftDto();
+    upliftDetails.setStaffId("staff-1");
+    stored.setUpliftDetails(upliftDetails);
+    stored = identityRepository.save(stored);
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).idvStatus("verified").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var result = identityRepository.updateIfKeyInformationChanged(stored, updated, key);
+
+    assertThat(result)
+        .hasValueSatisfying(identity -> assertThat(identity.getUpliftDetails()).isNull());
+  }
+
+  @Test
+  void when_changes_applied_inserts_and_conditional_updates_share_one_bulk_write() {
+    var inserted =
+        IdentityBuilder.createBuilderFromIdentity(stored)
+            .id(null)
+            .nino("RN000004A")
+            .subjectId("new@dwp.gov.uk")
+            .applicationID(null)
+            .build();
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).idvStatus("verified").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var written =
+        identityRepository.applyChanges(
+            List.of(IdentityChange.insert(inserted), IdentityChange.update(stored, updated, key)));
+
+    assertThat(written)
+        .extracting(AppliedChange::getStatus, AppliedChange::getIdentity)
+        .containsExactly(
+            tuple(AppliedChange.Status.WRITTEN, inserted),
+            tuple(AppliedChange.Status.WRITTEN, updated));
+    assertThat(inserted.getId()).isNotNull();
+    assertThat(identityRepository.findById(inserted.getId()))
+        .hasValueSatisfying(identity -> assertThat(identity.getNino()).isEqualTo("RN000004A"));
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(identity -> assertThat(identity.getIdvStatus()).isEqualTo("verified"));
+  }
+
+  @Test
+  void when_changes_applied_an_update_whose_key_already_matches_is_skipped() {
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).channel("staff").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "unverified");
+
+    var applied =
+        identityRepository.applyChanges(List.of(IdentityChange.update(stored, updated, key)));
+
+    assertThat(applied)
+        .extracting(AppliedChange::getStatus)
+        .containsExactly(AppliedChange.Status.NOT_APPLIED);
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(identity -> assertThat(identity.getChannel()).isEqualTo("oidv"));
+  }
+
+  @Test
+  void when_one_bulk_write_fails_the_others_are_still_reported_as_written() {
+    mongoTemplate
+        .indexOps(Identity.class)
+        .ensureIndex(new Index("applicationID", Sort.Direction.ASC).unique());
+    var duplicate = IdentityBuilder.createBuilderFromIdentity(stored).id(null).build();
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).idvStatus("verified").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var applied =
+        identityRepository.applyChanges(
+            List.of(IdentityChange.insert(duplicate), IdentityChange.update(stored, updated, key)));
+
+    assertThat(applied)
+        .extracting(AppliedChange::getStatus)
+        .containsExactly(AppliedChange.Status.FAILED, AppliedChange.Status.WRITTEN);
+    assertThat(applied.get(0).getFailure()).isInstanceOf(DuplicateKeyException.class);
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(identity -> assertThat(identity.getIdvStatus()).isEqualTo("verified"));
+  }
+
+  @Test
+  void when_record_changed_since_it_was_read_the_bulk_update_is_reported_not_applied() {
+    mongoTemplate.save(IdentityBuilder.createBuilderFromIdentity(stored).vot("P2.Cl.Cm").build());
+    var updated =
+        IdentityBuilder.createBuilderFromIdentity(stored).idvStatus("verified").build();
+    var key =
+        IdentityKeyInformation.of("positive@dwp.gov.uk", "RN000003A", "P0.Cl.Cm", "verified");
+
+    var applied =
+        identityRepository.applyChanges(List.of(IdentityChange.update(stored, updated, key)));
+
+    assertThat(applied)
+        .extracting(AppliedChange::getStatus, AppliedChange::getIdentity)
+        .containsExactly(tuple(AppliedChange.Status.NOT_APPLIED, null));
+    assertThat(identityRepository.findById(stored.getId()))
+        .hasValueSatisfying(
+            identity -> assertThat(identity.getIdvStatus()).isEqualTo("unverified"));
+  }
+}
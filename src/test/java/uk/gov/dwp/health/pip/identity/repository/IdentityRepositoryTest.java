@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.*;
 import com.mongodb.BasicDBObjectBuilder;
 import com.mongodb.DBObject;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeAll;
@@ -17,6 +18,8 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1.Vot;
 
 @DataMongoTest
@@ -85,6 +88,62 @@ class IdentityRepositoryTest {
             });
   }
 
+  @Test
+  void findStatusByNinoIn() {
+    assertThat(repository.findStatusByNinoIn(List.of("RN000003A", "RN000009A")))
+        .containsExactly(new IdentityStatus("RN000003A", Vot.P_2_CL_CM.value(), "verified"));
+  }
+
+  @Test
+  void findStatusByNinoAndSubjectId() {
+    var expected = new IdentityStatus("RN000003A", Vot.P_2_CL_CM.value(), "verified");
+    assertThat(repository.findStatusByNino("RN000003A")).contains(expected);
+    assertThat(repository.findStatusBySubjectId("positive@dwp.gov.uk")).contains(expected);
+    assertThat(repository.findStatusByNino("RN000009A")).isEmpty();
+  }
+
+  @Test
+  void findSummaryByApplicationIdAndId() {
+    var expected = new IdentitySummary(APPLICATION_ID, "RN000003A", "positive@dwp.gov.uk");
+    var summary = repository.findSummaryByApplicationID(APPLICATION_ID);
+    assertThat(summary).contains(expected);
+    var id = repository.findByApplicationID(APPLICATION_ID).orElseThrow().getId();
+    assertThat(repository.findSummaryById(id)).contains(expected);
+  }
+
+  @Test
+  void findByNinoOrSubjectId() {
+    assertThat(repository.findByNinoOrSubjectId("RN000003A", "unknown@dwp.gov.uk"))
+        .singleElement()
+        .extracting(Identity::getSubjectId)
+        .isEqualTo("positive@dwp.gov.uk");
+    assertThat(repository.findByNinoOrSubjectId("RN000009A", "positive@dwp.gov.uk"))
+        .singleElement()
+        .extracting(Identity::getNino)
+        .isEqualTo("RN000003A");
+    assertThat(repository.findByNinoOrSubjectId("RN000009A", "unknown@dwp.gov.uk")).isEmpty();
+  }
+
+  @Test
+  void findByNinoInOrSubjectIdIn() {
+    assertThat(
+            repository.findByNinoInOrSubjectIdIn(
+                List.of("RN000009A", "RN000003A"), List.of("unknown@dwp.gov.uk")))
+        .singleElement()
+        .extracting(Identity::getSubjectId)
+        .isEqualTo("positive@dwp.gov.uk");
+    assertThat(
+            repository.findByNinoInOrSubjectIdIn(
+                List.of("RN000009A"), List.of("unknown@dwp.gov.uk", "positive@dwp.gov.uk")))
+        .singleElement()
+        .extracting(Identity::getNino)
+        .isEqualTo("RN000003A");
+    assertThat(
+            repository.findByNinoInOrSubjectIdIn(
+                List.of("RN000009A"), List.of("unknown@dwp.gov.uk")))
+        .isEmpty();
+  }
+
   @Test
   void findByApplicationID() {
     Optional<Identity> byApplicationID = repository.findByApplicationID(APPLICATION_ID);
@@ -8,6 +8,7 @@ import uk.gov.dwp.health.pip.identity.entity.Registration;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dwp.health.pip.identity.entity.Registration.COUNTER_ID;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 @DataMongoTest
@@ -37,7 +38,7 @@ class RegistrationRepositoryCustomImplTest {
 
     @Test
     void when_subsequent_new_account_registration() {
-      var registration = Registration.builder().count(1).build();
+      var registration = Registration.builder().id(COUNTER_ID).count(1).build();
       mongoTemplate.save(registration);
 
       registrationRepository.incrementRegistrationCount();
@@ -50,7 +51,7 @@ class RegistrationRepositoryCustomImplTest {
 
     @Test
     void when_further_new_account_registration() {
-      var registration = Registration.builder().count(1000).build();
+      var registration = Registration.builder().id(COUNTER_ID).count(1000).build();
       mongoTemplate.save(registration);
 
       registrationRepository.incrementRegistrationCount();
@@ -60,6 +61,96 @@ class RegistrationRepositoryCustomImplTest {
       assertThat(registrations).hasSize(1);
       assertThat(registrations.get(0).getCount()).isEqualTo(1001);
     }
+
+    @Test
+    void when_several_registrations_are_flushed_together() {
+      var registration = Registration.builder().id(COUNTER_ID).count(10).build();
+      mongoTemplate.save(registration);
+
+      registrationRepository.incrementRegistrationCount(5);
+
+      var registrations = registrationRepository.findAll();
+
+      assertThat(registrations).hasSize(1);
+      assertThat(registrations.get(0).getCount()).isEqualTo(15);
+    }
+  }
+
+  @Nested
+  class ReadingCountTest {
+
+    @Test
+    void when_no_count_exists() {
+      assertThat(registrationRepository.getRegistrationCount()).isZero();
+    }
+
+    @Test
+    void when_count_exists() {
+      mongoTemplate.save(Registration.builder().id(COUNTER_ID).count(7).build());
+
+      assertThat(registrationRepository.getRegistrationCount()).isEqualTo(7);
+    }
+
+    @Test
+    void when_increments_use_the_counter_document() {
+      registrationRepository.incrementRegistrationCount(3);
+
+      var registrations = registrationRepository.findAll();
+
+      assertThat(registrations).hasSize(1);
+      assertThat(registrations.get(0).getId()).isEqualTo(COUNTER_ID);
+      assertThat(registrationRepository.getRegistrationCount()).isEqualTo(3);
+    }
+  }
+
+  @Nested
+  class ConsolidatingCountsTest {
+
+    @Test
+    void when_only_legacy_documents_exist() {
+      mongoTemplate.save(Registration.builder().count(4).build());
+      mongoTemplate.save(Registration.builder().count(9).build());
+
+      var removed = registrationRepository.consolidateRegistrationCounts();
+
+      var registrations = registrationRepository.findAll();
+
+      assertThat(removed).isEqualTo(2);
+      assertThat(registrations).hasSize(1);
+      assertThat(registrations.get(0).getId()).isEqualTo(COUNTER_ID);
+      assertThat(registrations.get(0).getCount()).isEqualTo(4);
+    }
+
+    @Test
+    void when_counter_document_already_exists_the_legacy_count_is_added() {
+      mongoTemplate.save(Registration.builder().id(COUNTER_ID).count(12).build());
+      mongoTemplate.save(Registration.builder().count(4).build());
+
+      var removed = registrationRepository.consolidateRegistrationCounts();
+
+      assertThat(removed).isOne();
+      assertThat(registrationRepository.findAll()).hasSize(1);
+      assertThat(registrationRepository.getRegistrationCount()).isEqualTo(16);
+    }
+
+    @Test
+    void when_another_instance_already_consolidated_nothing_is_added_twice() {
+      mongoTemplate.save(Registration.builder().count(4).build());
+
+      registrationRepository.consolidateRegistrationCounts();
+      var removed = registrationRepository.consolidateRegistrationCounts();
+
+      assertThat(removed).isZero();
+      assertThat(registrationRepository.getRegistrationCount()).isEqualTo(4);
+    }
+
+    @Test
+    void when_nothing_to_consolidate() {
+      var removed = registrationRepository.consolidateRegistrationCounts();
+
+      assertThat(removed).isZero();
+      assertThat(registrationRepository.findAll()).isEmpty();
+    }
   }
 
   @Nested
@@ -77,7 +168,7 @@ class RegistrationRepositoryCustomImplTest {
 
     @Test
     void when_count_zero() {
-      var registration = Registration.builder().count(0).build();
+      var registration = Registration.builder().id(COUNTER_ID).count(0).build();
       mongoTemplate.save(registration);
 
       registrationRepository.resetRegistrationCount();
@@ -90,7 +181,7 @@ class RegistrationRepositoryCustomImplTest {
 
     @Test
     void when_count_more_than_zero() {
-      var registration = Registration.builder().count(1).build();
+      var registration = Registration.builder().id(COUNTER_ID).count(1).build();
       mongoTemplate.save(registration);
 
       registrationRepository.resetRegistrationCount();
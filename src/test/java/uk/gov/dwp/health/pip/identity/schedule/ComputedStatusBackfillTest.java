@@ -0,0 +1,103 @@
+package uk.gov.dwp.health.pip.identity.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.annotation.Resource;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import uk.gov.dwp.health.pip.identity.config.properties.ComputedStatusBackfillProperties;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@DataMongoTest
+@Import({ComputedStatusBackfill.class, ComputedStatusBackfillProperties.class})
+@TestPropertySource(properties = "uk.gov.dwp.identity.computed-status-backfill.batch-size=2")
+class ComputedStatusBackfillTest {
+
+  private static final String COLLECTION = "identity";
+
+  @Resource private MongoTemplate mongoTemplate;
+  @Resource private ComputedStatusBackfill computedStatusBackfill;
+
+  @BeforeEach
+  void setup() {
+    mongoTemplate.dropCollection(Identity.class);
+    // Written as raw documents, as records saved before computedStatus existed would be
+    mongoTemplate.insert(legacy("RN000001A", "P2.Cl.Cm", "verified"), COLLECTION);
+    mongoTemplate.insert(legacy("RN000002A", "P0.Cl.Cm", "verified"), COLLECTION);
+    mongoTemplate.insert(legacy("RN000003A", null, "unverified"), COLLECTION);
+  }
+
+  @Test
+  void when_backfilling_it_resumes_across_runs_until_every_identity_has_a_status() {
+    computedStatusBackfill.backfillComputedStatus();
+
+    assertThat(pendingCount()).isOne();
+
+    computedStatusBackfill.backfillComputedStatus();
+
+    assertThat(pendingCount()).isZero();
+    assertThat(statusOf("RN000001A")).isEqualTo("verified");
+    assertThat(statusOf("RN000002A")).isEqualTo("unverified");
+    assertThat(statusOf("RN000003A")).isEqualTo("unverified");
+  }
+
+  @Test
+  void when_a_status_is_stripped_after_the_backfill_caught_up_the_next_run_restores_it() {
+    computedStatusBackfill.backfillComputedStatus();
+    computedStatusBackfill.backfillComputedStatus();
+    computedStatusBackfill.backfillComputedStatus();
+    // As a full document save from a pod on the previous release would leave it
+    mongoTemplate.updateFirst(
+        new Query(Criteria.where("nino").is("RN000001A")),
+        new Update().unset("computedStatus"),
+        COLLECTION);
+
+    computedStatusBackfill.backfillComputedStatus();
+
+    assertThat(pendingCount()).isZero();
+    assertThat(statusOf("RN000001A")).isEqualTo("verified");
+  }
+
+  @Test
+  void when_an_identity_already_has_a_computed_status_it_is_left_alone() {
+    mongoTemplate.insert(
+        legacy("RN000004A", "P2.Cl.Cm", "verified").append("computedStatus", "unverified"),
+        COLLECTION);
+
+    computedStatusBackfill.backfillComputedStatus();
+    computedStatusBackfill.backfillComputedStatus();
+    computedStatusBackfill.backfillComputedStatus();
+
+    assertThat(statusOf("RN000004A")).isEqualTo("unverified");
+  }
+
+  private static Document legacy(String nino, String vot, String idvStatus) {
+    final Document document = new Document("nino", nino).append("idvStatus", idvStatus);
+    if (vot != null) {
+      document.append("vot", vot);
+    }
+    return document;
+  }
+
+  private long pendingCount() {
+    return mongoTemplate.count(
+        new Query(Criteria.where("computedStatus").exists(false)), COLLECTION);
+  }
+
+  private String statusOf(String nino) {
+    return mongoTemplate
+        .findOne(new Query(Criteria.where("nino").is(nino)), Identity.class)
+        .getComputedStatus();
+  }
+}
@@ -8,6 +8,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+import uk.gov.dwp.health.pip.identity.service.RegistrationsLimiterGetter;
 
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,6 +18,7 @@ import static org.mockito.Mockito.verify;
 class RegistrationsCountResetterTest {
 
   @Mock private RegistrationRepository registrationRepository;
+  @Mock private RegistrationsLimiterGetter registrationsLimiterGetter;
   @InjectMocks private RegistrationsCountResetter registrationsCountResetter;
 
   @Test
@@ -24,5 +26,6 @@ class RegistrationsCountResetterTest {
     registrationsCountResetter.resetRegistrationsCount();
 
     verify(registrationRepository, times(1)).resetRegistrationCount();
+    verify(registrationsLimiterGetter, times(1)).evictRegistrationsCount();
   }
 }
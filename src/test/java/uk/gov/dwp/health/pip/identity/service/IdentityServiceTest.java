@@ -10,22 +10,32 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import uk.gov.dwp.health.identity.status.openapi.model.UpliftDto;
+import uk.gov.dwp.health.pip.identity.config.properties.IdentityOutboxProperties;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
 import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
 import uk.gov.dwp.health.pip.identity.exception.IdentityNotFoundException;
 import uk.gov.dwp.health.pip.identity.exception.NoKeyChangesToExistingRecordException;
+import uk.gov.dwp.health.pip.identity.model.AppliedChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityChange;
+import uk.gov.dwp.health.pip.identity.model.IdentityKeyInformation;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1.Channel;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1.Vot;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
+import uk.gov.dwp.health.pip.identity.model.IdentitySummary;
 import uk.gov.dwp.health.pip.identity.model.IdvAgentUpliftOutcome;
+import uk.gov.dwp.health.pip.identity.model.UpliftOutcome;
 import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
 import uk.gov.dwp.health.pip.identity.service.impl.IdentityServiceImpl;
 import uk.gov.dwp.health.pip.identity.utils.DateParseUtil;
 import uk.gov.dwp.health.pip.identity.webclient.ApplicationManagerWebClient;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -39,6 +49,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -58,11 +69,16 @@ class IdentityServiceTest {
   @Mock
   ApplicationManagerWebClient webClient;
 
+  IdentityOutboxProperties outboxProperties = new IdentityOutboxProperties();
+
   IdentityServiceImpl service;
 
   @BeforeEach
   void beforeEach() {
-    service = new IdentityServiceImpl(repository, webClient);
+    service = new IdentityServiceImpl(repository, webClient, outboxProperties);
+    lenient()
+        .when(repository.updateIfKeyInformationChanged(any(), any(), any()))
+        .thenAnswer(invocation -> Optional.of(invocation.getArgument(1)));
   }
 
   @Test
@@ -94,7 +110,7 @@ class IdentityServiceTest {
             "",
             null);
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.empty());
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of());
     when(repository.save(any(Identity.class))).thenReturn(savedIdentity);
     when(webClient.getApplicationId("RN000004A"))
         .thenReturn(Optional.of("applicationId"));
@@ -133,7 +149,7 @@ class IdentityServiceTest {
             "Application ID not found for identity with id: " + identityId,
             null);
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.empty());
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of());
     when(repository.save(any(Identity.class))).thenReturn(savedIdentity);
     when(webClient.getApplicationId("RN000004A")).thenReturn(Optional.empty());
 
@@ -170,7 +186,7 @@ class IdentityServiceTest {
             "Application ID not found for identity with id: 531a6d93-3889-45d5-92cd-9d5bb78d1a89",
             null);
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.empty());
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of());
     when(repository.save(any(Identity.class))).thenReturn(savedIdentity);
     when(webClient.getApplicationId("RN000004A")).thenReturn(Optional.empty());
 
@@ -230,7 +246,7 @@ class IdentityServiceTest {
     newIdentityRequest.setIdvOutcome(VERIFIED);
     newIdentityRequest.setNino("RN000004A");
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.empty());
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of());
     when(webClient.getApplicationId("RN000004A"))
         .thenThrow(new GenericRuntimeException("Server error: example server error"));
 
@@ -268,7 +284,7 @@ class IdentityServiceTest {
             "Application ID not found for identity with id: 531a6d93-3889-45d5-92cd-9d5bb78d1a89",
             null);
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000004A"))
         .thenThrow(new GenericRuntimeException("Server error: example server error"));
 
@@ -306,7 +322,7 @@ class IdentityServiceTest {
             "Server error: example server error",
             null);
 
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.empty());
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of());
     when(repository.save(any(Identity.class))).thenReturn(savedIdentity);
     when(webClient.getApplicationId("RN000004A"))
         .thenThrow(new IllegalArgumentException("Server error: example server error"));
@@ -320,7 +336,7 @@ class IdentityServiceTest {
       "Should not throw exception when existing nino is present and application id is not present")
   void
   recordUpliftedIdentity_doesNotThrowException_whenExistingNinoIsPresentAndApplicationIdIsNotPresent() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -346,7 +362,7 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
   }
 
@@ -380,13 +396,13 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findBySubjectId("subjectId")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(any(), eq("subjectId"))).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000005A")).thenReturn(Optional.of("123"));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> captor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository, times(1)).save(captor.capture());
+    verify(repository, times(1)).updateIfKeyInformationChanged(any(), captor.capture(), any());
     assertEquals(captor.getValue().getIdentityId(), newIdentityId);
     assertEquals(captor.getValue().getNino(), "RN000005A");
     assertEquals(captor.getValue().getApplicationID(), "123");
@@ -422,13 +438,13 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000004A")).thenReturn(Optional.of("722"));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> captor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository, times(1)).save(captor.capture());
+    verify(repository, times(1)).updateIfKeyInformationChanged(any(), captor.capture(), any());
     assertEquals(captor.getValue().getIdentityId(), newIdentityId);
     assertEquals(captor.getValue().getSubjectId(), "subjectIdTwo");
     assertEquals(captor.getValue().getApplicationID(), "722");
@@ -465,14 +481,14 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000004A"))
         .thenReturn(Optional.empty());
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> captor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository, times(1)).save(captor.capture());
+    verify(repository, times(1)).updateIfKeyInformationChanged(any(), captor.capture(), any());
     assertEquals(captor.getValue().getIdentityId(), newIdentityId);
     assertEquals(captor.getValue().getSubjectId(), "test2@dwp.gov.uk");
     assertNull(captor.getValue().getApplicationID());
@@ -515,7 +531,7 @@ class IdentityServiceTest {
             null,
             "Test123",
             vot.toString());
-    when(repository.findByNino(nino)).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq(nino), any())).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId(nino)).thenReturn(Optional.empty());
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
@@ -554,7 +570,7 @@ class IdentityServiceTest {
             null,
             "Test123",
             vot.toString());
-    when(repository.findByNino(nino)).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq(nino), any())).thenReturn(List.of(savedIdentity));
     assertThrows(NoKeyChangesToExistingRecordException.class, () -> service.recordUpliftedIdentity(newIdentityRequest));
   }
 
@@ -627,7 +643,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Should not throw an exception when email address is different")
   void getIdentityByNino_recordFound_whenEmailAddressIsDifferent_exceptionNotThrown() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -654,12 +670,12 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getSubjectId(), "subjectId2");
   }
@@ -668,7 +684,7 @@ class IdentityServiceTest {
   @NullSource
   @ValueSource(strings = {"P0.Cl.Cm", "P1.Cl.Cm", ""})
   void getIdentityByNino_recordFound_whenVotIsDifferent_exceptionNotThrown(String value) {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -695,12 +711,12 @@ class IdentityServiceTest {
             null,
             "Test123",
             value);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getVot(), IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM.toString());
   }
@@ -708,7 +724,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Does not throw exception when upgrading to Medium Uplift")
   void updatesSuccessfullyOnUpgrade() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     UUID newIdentityId = UUID.randomUUID();
@@ -733,12 +749,12 @@ class IdentityServiceTest {
             null,
             "Test123",
             "P0.Cl.Cm");
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getVot(), IdentityRequestUpdateSchemaV1.Vot.P_2_CL_CM.toString());
   }
@@ -747,7 +763,7 @@ class IdentityServiceTest {
   @NullSource
   @ValueSource(strings = {"RN000004A", ""})
   void getIdentityBySubjectId_recordFound_whenNinoIsDifferent_exceptionNotThrown(String value) {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -775,13 +791,12 @@ class IdentityServiceTest {
             null,
             "Test123",
             P_0_CL_CM.toString());
-    when(repository.findByNino(any())).thenReturn(Optional.empty());
-    when(repository.findBySubjectId("subjectId")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(any(), eq("subjectId"))).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getNino(), "RN000007A");
   }
@@ -789,7 +804,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Returns identity when matched by Application ID")
   void getIdentityByApplicationId_returnsIdentity_whenAppIdMatches() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
 
     var applicationId = "507f1f77bcf86cd799439011";
     Identity savedIdentity =
@@ -813,7 +828,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Should not call Application Manager when Identity has existing Application ID")
   void getIdentityByNino_recordFound_whenIdentityHasApplicationId_applicationManagerNotCalled() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -840,12 +855,12 @@ class IdentityServiceTest {
             "507f1f77bcf86cd799439011",
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
     verify(webClient, never()).getApplicationId(any());
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getApplicationID(), "507f1f77bcf86cd799439011");
 
@@ -854,7 +869,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Should call Application Manager when Identity has no existing Application ID")
   void getIdentityByNino_recordFound_whenIdentityHasNoApplicationId_applicationManagerCalled() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -881,7 +896,7 @@ class IdentityServiceTest {
             null,
             "Test123",
             null);
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000004A"))
         .thenReturn(Optional.of("123"));
 
@@ -889,7 +904,7 @@ class IdentityServiceTest {
     verify(webClient, times(1)).getApplicationId(any());
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
 
     assertEquals(updatedIdentity.getApplicationID(), "123");
@@ -898,7 +913,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Should call Application Manager when Identity has has existing Application ID but Nino has changed")
   void getIdentityBySubjectId_recordFound_whenNinoIsDifferent_applicationManagerCalled() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -926,8 +941,7 @@ class IdentityServiceTest {
             "507f1f77bcf86cd799439011",
             "Test123",
             P_0_CL_CM.toString());
-    when(repository.findByNino(any())).thenReturn(Optional.empty());
-    when(repository.findBySubjectId("subjectId")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(any(), eq("subjectId"))).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000007A"))
         .thenReturn(Optional.of("123"));
 
@@ -935,7 +949,7 @@ class IdentityServiceTest {
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
     verify(webClient, times(1)).getApplicationId(any());
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
 
     assertEquals(updatedIdentity.getNino(), "RN000007A");
@@ -945,7 +959,7 @@ class IdentityServiceTest {
   @Test
   @DisplayName("Should not call Application Manager when Identity has existing Application ID")
   void getIdentityBySubjectId_recordFound_whenIdentityHasApplicationId_applicationManagerNotCalled() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -972,12 +986,12 @@ class IdentityServiceTest {
             "507f1f77bcf86cd799439011",
             "Test123",
             P_0_CL_CM.toString());
-    when(repository.findByNino("RN000004A")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(eq("RN000004A"), any())).thenReturn(List.of(savedIdentity));
 
     assertDoesNotThrow(() -> service.recordUpliftedIdentity(newIdentityRequest));
     verify(webClient, never()).getApplicationId(any());
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
     assertEquals(updatedIdentity.getApplicationID(), "507f1f77bcf86cd799439011");
 
@@ -1015,7 +1029,7 @@ class IdentityServiceTest {
       "Should call Application Manager when Identity has has existing Application ID but Nino has changed"
       + " and if Nino returns no record then ApplicationId should be cleared from Identity.")
   void getIdentityBySubjectId_recordFound_whenNinoIsDifferent_applicationManagerCalledAndClearedWhenNoResult() {
-    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient);
+    IdentityServiceImpl service = new IdentityServiceImpl(repository, webClient, outboxProperties);
     LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
     Channel channelEnum = OIDV;
     IdentityRequestUpdateSchemaV1.IdvOutcome idvOutcome =
@@ -1043,8 +1057,7 @@ class IdentityServiceTest {
             "507f1f77bcf86cd799439011",
             "Test123",
             P_0_CL_CM.toString());
-    when(repository.findByNino(any())).thenReturn(Optional.empty());
-    when(repository.findBySubjectId("subjectId")).thenReturn(Optional.of(savedIdentity));
+    when(repository.findByNinoOrSubjectId(any(), eq("subjectId"))).thenReturn(List.of(savedIdentity));
     when(webClient.getApplicationId("RN000007A"))
         .thenReturn(Optional.empty());
 
@@ -1052,7 +1065,7 @@ class IdentityServiceTest {
 
     ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
     verify(webClient, times(1)).getApplicationId(any());
-    verify(repository).save(identityCaptor.capture());
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
     Identity updatedIdentity = identityCaptor.getValue();
 
     assertEquals(updatedIdentity.getNino(), "RN000007A");
@@ -1091,6 +1104,7 @@ class IdentityServiceTest {
     assertEquals(captor.getValue().getVot(), Vot.P_2_CL_CM.toString());
     assertEquals(captor.getValue().getIdvStatus(), VERIFIED.toString());
     assertEquals(captor.getValue().getUpliftDetails(), upliftDetails);
+    assertEquals("verified", captor.getValue().getComputedStatus());
 
     assertEquals(result, IdvAgentUpliftOutcome.SUCCESS);
   }
@@ -1164,4 +1178,391 @@ class IdentityServiceTest {
 
     assertEquals(result, IdvAgentUpliftOutcome.IDENTITY_NOT_FOUND);
   }
+
+  @Test
+  @DisplayName("Prefers the nino record when nino and subject id match different identities")
+  void recordUpliftedIdentity_updatesNinoRecord_whenBothCandidatesReturned() {
+    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
+    UUID newIdentityId = UUID.randomUUID();
+
+    IdentityRequestUpdateSchemaV1 newIdentityRequest = new IdentityRequestUpdateSchemaV1();
+    newIdentityRequest.setSubjectId("subjectId");
+    newIdentityRequest.setIdentityId(newIdentityId);
+    newIdentityRequest.setTimestamp(DateParseUtil.dateTimeToString(dateTime));
+    newIdentityRequest.setChannel(OIDV);
+    newIdentityRequest.setIdvOutcome(VERIFIED);
+    newIdentityRequest.setNino("RN000004A");
+
+    Identity subjectIdentity =
+        new Identity(
+            "subject-record",
+            "subjectId",
+            identityId,
+            dateTime,
+            OIDV.toString(),
+            VERIFIED.toString(),
+            "RN000009A",
+            null,
+            "",
+            null);
+    Identity ninoIdentity =
+        new Identity(
+            "nino-record",
+            "otherSubjectId",
+            identityId,
+            dateTime,
+            OIDV.toString(),
+            VERIFIED.toString(),
+            "RN000004A",
+            "507f1f77bcf86cd799439011",
+            "",
+            null);
+    when(repository.findByNinoOrSubjectId("RN000004A", "subjectId"))
+        .thenReturn(List.of(subjectIdentity, ninoIdentity));
+
+    service.recordUpliftedIdentity(newIdentityRequest);
+
+    ArgumentCaptor<Identity> identityCaptor = ArgumentCaptor.forClass(Identity.class);
+    verify(repository).updateIfKeyInformationChanged(any(), identityCaptor.capture(), any());
+    assertEquals("nino-record", identityCaptor.getValue().getId());
+    assertEquals("subjectId", identityCaptor.getValue().getSubjectId());
+    assertEquals("verified", identityCaptor.getValue().getComputedStatus());
+    verify(repository, never()).findByNino(any());
+    verify(repository, never()).findBySubjectId(any());
+  }
+
+  @Test
+  @DisplayName("Throws no key changes when the record was updated to the same key concurrently")
+  void recordUpliftedIdentity_throwsNoKeyChanges_whenRepositoryRejectsUpdate() {
+    LocalDateTime dateTime = LocalDateTime.now().minusMinutes(2);
+
+    IdentityRequestUpdateSchemaV1 newIdentityRequest = new IdentityRequestUpdateSchemaV1();
+    newIdentityRequest.setSubjectId("subjectId");
+    newIdentityRequest.setIdentityId(UUID.randomUUID());
+    newIdentityRequest.setTimestamp(DateParseUtil.dateTimeToString(dateTime));
+    newIdentityRequest.setChannel(OIDV);
+    newIdentityRequest.setIdvOutcome(VERIFIED);
+    newIdentityRequest.setVot(P_0_CL_CM);
+    newIdentityRequest.setNino("RN000004A");
+
+    Identity savedIdentity =
+        new Identity(
+            "id",
+            "subjectId",
+            identityId,
+            dateTime,
+            OIDV.toString(),
+            UNVERIFIED.toString(),
+            "RN000004A",
+            "507f1f77bcf86cd799439011",
+            "",
+            P_0_CL_CM.toString());
+    when(repository.findByNinoOrSubjectId("RN000004A", "subjectId"))
+        .thenReturn(List.of(savedIdentity));
+    when(repository.updateIfKeyInformationChanged(
+            eq(savedIdentity),
+            any(Identity.class),
+            eq(IdentityKeyInformation.of(
+                "subjectId", "RN000004A", P_0_CL_CM.value(), VERIFIED.toString()))))
+        .thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> service.recordUpliftedIdentity(newIdentityRequest))
+        .isInstanceOf(NoKeyChangesToExistingRecordException.class)
+        .hasMessage("Key information not changed on existing NINO record");
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Returns idv status for each nino found, keeping the first record per nino")
+  void getIdvStatusByNinos_returnsStatusForEachNinoFound() {
+    IdentityStatus verified = new IdentityStatus("RN000001A", "P2.Cl.Cm", null);
+    IdentityStatus unverified = new IdentityStatus("RN000002A", null, "unverified");
+    IdentityStatus duplicate = new IdentityStatus("RN000001A", null, "unverified");
+    IdentityStatus noStatus = new IdentityStatus("RN000003A", null, null);
+    List<String> ninos = List.of("RN000001A", "RN000002A", "RN000003A", "RN000004A");
+    when(repository.findStatusByNinoIn(ninos))
+        .thenReturn(List.of(verified, unverified, duplicate, noStatus));
+
+    var statuses = service.getIdvStatusByNinos(ninos);
+
+    assertEquals(Map.of("RN000001A", "verified", "RN000002A", "unverified"), statuses);
+  }
+
+  @Test
+  @DisplayName("Returns the status projection when looked up by nino or subject id")
+  void getIdentityStatus_returnsProjection() {
+    IdentityStatus status = new IdentityStatus("RN000004A", P_0_CL_CM.value(), "verified");
+    when(repository.findStatusByNino("RN000004A")).thenReturn(Optional.of(status));
+    when(repository.findStatusBySubjectId("subjectId")).thenReturn(Optional.empty());
+
+    assertEquals(Optional.of(status), service.getIdentityStatusByNino("RN000004A"));
+    assertEquals(Optional.empty(), service.getIdentityStatusBySubjectId("subjectId"));
+  }
+
+  @Test
+  @DisplayName("Returns the summary projection when looked up by application id or id")
+  void getIdentitySummary_returnsProjection() {
+    IdentitySummary summary =
+        new IdentitySummary("507f1f77bcf86cd799439011", "RN000004A", "subjectId");
+    when(repository.findSummaryByApplicationID("507f1f77bcf86cd799439011"))
+        .thenReturn(Optional.of(summary));
+    when(repository.findSummaryById("id")).thenReturn(Optional.empty());
+
+    assertEquals(
+        Optional.of(summary), service.getIdentitySummaryByApplicationId("507f1f77bcf86cd799439011"));
+    assertEquals(Optional.empty(), service.getIdentitySummaryById("id"));
+  }
+
+  @Test
+  @DisplayName("Reads the records for a whole batch at once and hands each request its own")
+  void findUpliftCandidates_readsBatchInOneLookup() {
+    Identity ninoRecord = existingIdentity("id-b", "RN000002B", "other@dwp.gov.uk", "verified");
+    Identity subjectRecord = existingIdentity("id-c", null, "c@dwp.gov.uk", "unverified");
+    var newRecord = upliftRequest("RN000001A", "a@dwp.gov.uk");
+    var byNino = upliftRequest("RN000002B", "b@dwp.gov.uk");
+    var bySubject = upliftRequest("RN000003C", "c@dwp.gov.uk");
+
+    when(repository.findByNinoInOrSubjectIdIn(any(), any()))
+        .thenReturn(List.of(ninoRecord, subjectRecord));
+
+    List<List<Identity>> candidates =
+        service.findUpliftCandidates(List.of(newRecord, byNino, bySubject));
+
+    assertEquals(List.of(List.of(), List.of(ninoRecord), List.of(subjectRecord)), candidates);
+    verify(repository, times(1)).findByNinoInOrSubjectIdIn(any(), any());
+  }
+
+  @Test
+  @DisplayName("Plans a batched request against the records read for it")
+  void planUpliftedIdentity_plansAgainstCandidates() {
+    Identity toUpdate = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    Identity unchanged = existingIdentity("id-c", "RN000003C", "c@dwp.gov.uk", "verified");
+    when(webClient.getApplicationId(anyString())).thenReturn(Optional.of("applicationId"));
+
+    IdentityChange insert =
+        service.planUpliftedIdentity(upliftRequest("RN000001A", "a@dwp.gov.uk"), List.of());
+    IdentityChange update =
+        service.planUpliftedIdentity(
+            upliftRequest("RN000002B", "b@dwp.gov.uk"), List.of(toUpdate));
+
+    assertTrue(insert.isInsert());
+    assertEquals("applicationId", insert.getUpdated().getApplicationID());
+    assertEquals(toUpdate, update.getCurrent());
+    assertEquals("verified", update.getUpdated().getComputedStatus());
+    assertThrows(
+        NoKeyChangesToExistingRecordException.class,
+        () ->
+            service.planUpliftedIdentity(
+                upliftRequest("RN000003C", "c@dwp.gov.uk"), List.of(unchanged)));
+    verify(repository, never()).findByNinoOrSubjectId(any(), any());
+  }
+
+  @Test
+  @DisplayName("Writes planned changes in one bulk write, leaving out repeated ninos")
+  void applyUpliftChanges_writesBatchInOneBulkWrite() {
+    Identity toUpdate = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    var newRecord = IdentityChange.insert(newIdentity("RN000001A", "a@dwp.gov.uk"));
+    var update =
+        IdentityChange.update(
+            toUpdate,
+            newIdentity("RN000002B", "b@dwp.gov.uk"),
+            IdentityKeyInformation.of("b@dwp.gov.uk", "RN000002B", "", "verified"));
+    var repeated = IdentityChange.insert(newIdentity("RN000001A", "a2@dwp.gov.uk"));
+
+    when(repository.applyChanges(any()))
+        .thenAnswer(
+            invocation -> invocation.<List<IdentityChange>>getArgument(0).stream()
+                .map(change -> AppliedChange.written(change.getUpdated()))
+                .toList());
+
+    List<UpliftOutcome> outcomes =
+        service.applyUpliftChanges(List.of(newRecord, update, repeated));
+
+    assertEquals(3, outcomes.size());
+    assertEquals("a@dwp.gov.uk", outcomes.get(0).getIdentity().getSubjectId());
+    assertEquals("b@dwp.gov.uk", outcomes.get(1).getIdentity().getSubjectId());
+    assertTrue(outcomes.get(2).isNotApplied());
+
+    ArgumentCaptor<List<IdentityChange>> changes = ArgumentCaptor.forClass(List.class);
+    verify(repository, times(1)).applyChanges(changes.capture());
+    assertEquals(List.of(newRecord, update), changes.getValue());
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("Fails every change in the batch when the bulk write fails")
+  void applyUpliftChanges_failsEveryChange_whenBulkWriteFails() {
+    var first = IdentityChange.insert(newIdentity("RN000001A", "a@dwp.gov.uk"));
+    var second = IdentityChange.insert(newIdentity("RN000002B", "b@dwp.gov.uk"));
+    RuntimeException failure = new IllegalStateException("bulk write failed");
+
+    when(repository.applyChanges(any())).thenThrow(failure);
+
+    List<UpliftOutcome> outcomes = service.applyUpliftChanges(List.of(first, second));
+
+    assertThatThrownBy(outcomes.get(0)::getIdentity).isSameAs(failure);
+    assertThatThrownBy(outcomes.get(1)::getIdentity).isSameAs(failure);
+  }
+
+  @Test
+  @DisplayName("Fails only the changes whose bulk write failed")
+  void applyUpliftChanges_failsOnlyFailedWrites_whenBulkWritePartlyFails() {
+    var first = IdentityChange.insert(newIdentity("RN000001A", "a@dwp.gov.uk"));
+    var second = IdentityChange.insert(newIdentity("RN000002B", "b@dwp.gov.uk"));
+    RuntimeException failure = new DuplicateKeyException("duplicate applicationID");
+
+    when(repository.applyChanges(any()))
+        .thenReturn(
+            List.of(AppliedChange.failed(failure), AppliedChange.written(second.getUpdated())));
+
+    List<UpliftOutcome> outcomes = service.applyUpliftChanges(List.of(first, second));
+
+    assertThatThrownBy(outcomes.get(0)::getIdentity).isSameAs(failure);
+    assertEquals("RN000002B", outcomes.get(1).getIdentity().getNino());
+  }
+
+  @Test
+  @DisplayName("Leaves a bulk update to be recorded on its own when its record has changed")
+  void applyUpliftChanges_returnsNotApplied_whenBulkUpdateNotApplied() {
+    Identity read = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    var update =
+        IdentityChange.update(
+            read,
+            newIdentity("RN000002B", "b@dwp.gov.uk"),
+            IdentityKeyInformation.of("b@dwp.gov.uk", "RN000002B", "", "verified"));
+
+    when(repository.applyChanges(any())).thenReturn(List.of(AppliedChange.notApplied()));
+
+    List<UpliftOutcome> outcomes = service.applyUpliftChanges(List.of(update));
+
+    assertTrue(outcomes.get(0).isNotApplied());
+  }
+
+  @Test
+  @DisplayName("Looks up only the subject when the request has no nino")
+  void recordUpliftedIdentity_doesNotMatchNinoLessRecords_whenRequestHasNoNino() {
+    Identity subjectRecord = existingIdentity("id-s", null, "s@dwp.gov.uk", "unverified");
+    var request = upliftRequest(null, "s@dwp.gov.uk");
+
+    when(repository.findBySubjectId("s@dwp.gov.uk")).thenReturn(Optional.of(subjectRecord));
+
+    Identity updated = service.recordUpliftedIdentity(request);
+
+    assertEquals("id-s", updated.getId());
+    verify(repository, never()).findByNinoOrSubjectId(any(), any());
+  }
+
+  @Test
+  @DisplayName("Does not treat a nino-less candidate as the nino record in a batch")
+  void findUpliftCandidates_skipsNinoMatch_whenRequestHasNoNino() {
+    Identity otherNinoLess = existingIdentity("id-x", null, "x@dwp.gov.uk", "unverified");
+    var request = upliftRequest("", "new@dwp.gov.uk");
+
+    when(repository.findByNinoInOrSubjectIdIn(any(), any())).thenReturn(List.of(otherNinoLess));
+
+    List<List<Identity>> candidates = service.findUpliftCandidates(List.of(request));
+
+    assertEquals(List.of(List.of()), candidates);
+    ArgumentCaptor<List<String>> ninos = ArgumentCaptor.forClass(List.class);
+    verify(repository).findByNinoInOrSubjectIdIn(ninos.capture(), any());
+    assertTrue(ninos.getValue().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Plans the update again when the record changed after it was read")
+  void recordUpliftedIdentity_replans_whenRecordChangedConcurrently() {
+    Identity read = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    Identity reread = existingIdentity("id-b", "RN000002B", "b2@dwp.gov.uk", "unverified");
+    var request = upliftRequest("RN000002B", "b@dwp.gov.uk");
+
+    when(repository.findByNinoOrSubjectId("RN000002B", "b@dwp.gov.uk"))
+        .thenReturn(List.of(read))
+        .thenReturn(List.of(reread));
+    when(repository.updateIfKeyInformationChanged(eq(read), any(), any()))
+        .thenReturn(Optional.empty());
+
+    Identity updated = service.recordUpliftedIdentity(request);
+
+    assertEquals("b@dwp.gov.uk", updated.getSubjectId());
+    verify(repository).updateIfKeyInformationChanged(eq(reread), any(), any());
+  }
+
+  @Test
+  @DisplayName("Reports no key changes when a concurrent update already applied the outcome")
+  void recordUpliftedIdentity_throwsNoKeyChanges_whenConcurrentUpdateAppliedOutcome() {
+    Identity read = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    Identity reread = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "verified");
+    var request = upliftRequest("RN000002B", "b@dwp.gov.uk");
+
+    when(repository.findByNinoOrSubjectId("RN000002B", "b@dwp.gov.uk"))
+        .thenReturn(List.of(read))
+        .thenReturn(List.of(reread));
+    when(repository.updateIfKeyInformationChanged(eq(read), any(), any()))
+        .thenReturn(Optional.empty());
+
+    assertThrows(
+        NoKeyChangesToExistingRecordException.class,
+        () -> service.recordUpliftedIdentity(request));
+  }
+
+  private IdentityRequestUpdateSchemaV1 upliftRequest(String nino, String subjectId) {
+    IdentityRequestUpdateSchemaV1 request = new IdentityRequestUpdateSchemaV1();
+    request.setSubjectId(subjectId);
+    request.setIdentityId(UUID.randomUUID());
+    request.setTimestamp(DateParseUtil.dateTimeToString(LocalDateTime.now().minusMinutes(2)));
+    request.setChannel(OIDV);
+    request.setIdvOutcome(VERIFIED);
+    request.setNino(nino);
+    return request;
+  }
+
+  private Identity newIdentity(String nino, String subjectId) {
+    return Identity.builder().nino(nino).subjectId(subjectId).build();
+  }
+
+  private Identity existingIdentity(String id, String nino, String subjectId, String idvStatus) {
+    return new Identity(
+        id,
+        subjectId,
+        UUID.randomUUID(),
+        LocalDateTime.now().minusDays(1),
+        OIDV.toString(),
+        idvStatus,
+        nino,
+        "applicationId",
+        "",
+        null);
+  }
+
+  @Test
+  @DisplayName("Writes the update event with the record when the outbox is enabled")
+  void recordUpliftedIdentity_attachesPendingDistribution_whenOutboxEnabled() {
+    outboxProperties.setEnabled(true);
+    Identity existing = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    var request = upliftRequest("RN000002B", "b@dwp.gov.uk");
+    when(repository.findByNinoOrSubjectId("RN000002B", "b@dwp.gov.uk"))
+        .thenReturn(List.of(existing));
+
+    Identity updated = service.recordUpliftedIdentity(request);
+
+    ArgumentCaptor<Identity> written = ArgumentCaptor.forClass(Identity.class);
+    verify(repository).updateIfKeyInformationChanged(eq(existing), written.capture(), any());
+    assertThat(written.getValue().getPendingDistribution()).isNotNull();
+    assertEquals("applicationId", written.getValue().getPendingDistribution().getApplicationId());
+    assertEquals("verified", written.getValue().getPendingDistribution().getIdvStatus());
+    assertEquals(updated, written.getValue());
+  }
+
+  @Test
+  @DisplayName("Writes no update event when the outbox is disabled")
+  void recordUpliftedIdentity_noPendingDistribution_whenOutboxDisabled() {
+    Identity existing = existingIdentity("id-b", "RN000002B", "b@dwp.gov.uk", "unverified");
+    var request = upliftRequest("RN000002B", "b@dwp.gov.uk");
+    when(repository.findByNinoOrSubjectId("RN000002B", "b@dwp.gov.uk"))
+        .thenReturn(List.of(existing));
+
+    Identity updated = service.recordUpliftedIdentity(request);
+
+    assertNull(updated.getPendingDistribution());
+  }
 }
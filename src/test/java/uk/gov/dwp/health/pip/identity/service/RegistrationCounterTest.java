@@ -0,0 +1,125 @@
+package uk.gov.dwp.health.pip.identity.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.dwp.health.pip.identity.config.properties.RegistrationCounterProperties;
+import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class RegistrationCounterTest {
+
+  @Mock private RegistrationRepository registrationRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RegistrationCounter registrationCounter;
+
+  @BeforeEach
+  void setUp() {
+    var properties = new RegistrationCounterProperties();
+    properties.setMaxUnflushed(3);
+    meterRegistry = new SimpleMeterRegistry();
+    registrationCounter = new RegistrationCounter(registrationRepository, properties, meterRegistry);
+  }
+
+  @Test
+  void when_registrations_are_counted_they_are_written_together_on_the_scheduled_flush() {
+    registrationCounter.increment();
+    registrationCounter.increment();
+
+    verify(registrationRepository, never()).incrementRegistrationCount(anyLong());
+    assertThat(meterRegistry.get("identity.registration.count.unflushed").gauge().value())
+        .isEqualTo(2);
+
+    registrationCounter.scheduledFlush();
+
+    verify(registrationRepository).incrementRegistrationCount(2);
+    assertThat(registrationCounter.getUnflushed()).isZero();
+  }
+
+  @Test
+  void when_nothing_is_unflushed_the_scheduled_flush_does_not_write() {
+    registrationCounter.scheduledFlush();
+
+    verify(registrationRepository, never()).incrementRegistrationCount(anyLong());
+  }
+
+  @Test
+  void when_unflushed_registrations_reach_the_limit_they_are_flushed_straight_away() {
+    registrationCounter.increment();
+    registrationCounter.increment();
+    registrationCounter.increment();
+
+    verify(registrationRepository).incrementRegistrationCount(3);
+    assertThat(registrationCounter.getUnflushed()).isZero();
+  }
+
+  @Test
+  void when_counted_asynchronously_the_limit_flush_runs_off_the_calling_thread() {
+    var flushThread = new AtomicReference<Thread>();
+    doAnswer(
+            invocation -> {
+              flushThread.set(Thread.currentThread());
+              return null;
+            })
+        .when(registrationRepository)
+        .incrementRegistrationCount(3);
+
+    registrationCounter.incrementAsync().block();
+    registrationCounter.incrementAsync().block();
+    verify(registrationRepository, never()).incrementRegistrationCount(anyLong());
+    registrationCounter.incrementAsync().block();
+
+    verify(registrationRepository).incrementRegistrationCount(3);
+    assertThat(flushThread.get()).isNotSameAs(Thread.currentThread());
+    assertThat(registrationCounter.getUnflushed()).isZero();
+  }
+
+  @Test
+  void when_a_scheduled_flush_fails_the_registrations_are_kept_for_the_next_flush() {
+    registrationCounter.increment();
+    doThrow(new IllegalStateException("mongo unavailable"))
+        .when(registrationRepository)
+        .incrementRegistrationCount(1);
+
+    registrationCounter.scheduledFlush();
+
+    assertThat(registrationCounter.getUnflushed()).isOne();
+  }
+
+  @Test
+  void when_a_forced_flush_fails_the_error_is_raised_and_registrations_kept() {
+    doThrow(new IllegalStateException("mongo unavailable"))
+        .when(registrationRepository)
+        .incrementRegistrationCount(3);
+    registrationCounter.increment();
+    registrationCounter.increment();
+
+    assertThatThrownBy(registrationCounter::increment).isInstanceOf(IllegalStateException.class);
+    assertThat(registrationCounter.getUnflushed()).isEqualTo(3);
+  }
+
+  @Test
+  void when_shutting_down_unflushed_registrations_are_written() {
+    registrationCounter.increment();
+
+    registrationCounter.flushOnShutdown();
+
+    verify(registrationRepository).incrementRegistrationCount(1);
+  }
+}
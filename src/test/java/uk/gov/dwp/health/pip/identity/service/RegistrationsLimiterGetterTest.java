@@ -7,14 +7,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.identity.status.openapi.model.RegistrationsLimiterDto;
 import uk.gov.dwp.health.pip.identity.config.properties.ApplicationProperties;
-import uk.gov.dwp.health.pip.identity.entity.Registration;
 import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
 
-import java.util.Arrays;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +28,7 @@ class RegistrationsLimiterGetterTest {
 
   @BeforeEach
   public void beforeEach() {
+    when(applicationProperties.getRegistrationsCountCacheTtl()).thenReturn(Duration.ofMinutes(1));
     registrationsLimiterGetter = new RegistrationsLimiterGetter(
         applicationProperties, registrationRepository
     );
@@ -44,10 +46,29 @@ class RegistrationsLimiterGetterTest {
   @Test
   public void getRegistrationsLimiterLimitReached() {
     when(applicationProperties.getAccountRegistrationsLimit()).thenReturn(1);
-    when(registrationRepository.findAll()).thenReturn(Arrays.asList(Registration.builder().count(3).build()));
+    when(registrationRepository.getRegistrationCount()).thenReturn(3);
     final RegistrationsLimiterDto registrationsLimiterDto = registrationsLimiterGetter.getRegistrationsLimiter();
     final Boolean limitReached = registrationsLimiterDto.isLimitReached();
     assertNotNull(limitReached);
     assertTrue(limitReached);
   }
+
+  @Test
+  public void getRegistrationsLimiterReadsCountOnceWhileCached() {
+    when(applicationProperties.getAccountRegistrationsLimit()).thenReturn(5);
+    when(registrationRepository.getRegistrationCount()).thenReturn(3);
+    registrationsLimiterGetter.getRegistrationsLimiter();
+    registrationsLimiterGetter.getRegistrationsLimiter();
+    verify(registrationRepository, times(1)).getRegistrationCount();
+  }
+
+  @Test
+  public void getRegistrationsLimiterReadsCountAgainAfterEviction() {
+    when(applicationProperties.getAccountRegistrationsLimit()).thenReturn(3);
+    when(registrationRepository.getRegistrationCount()).thenReturn(3).thenReturn(0);
+    assertTrue(registrationsLimiterGetter.getRegistrationsLimiter().isLimitReached());
+    registrationsLimiterGetter.evictRegistrationsCount();
+    assertFalse(registrationsLimiterGetter.getRegistrationsLimiter().isLimitReached());
+    verify(registrationRepository, times(2)).getRegistrationCount();
+  }
 }
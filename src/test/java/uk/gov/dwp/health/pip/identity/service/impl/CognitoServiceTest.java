@@ -2,13 +2,21 @@ package uk.gov.dwp.health.pip.identity.service.impl;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -25,12 +33,27 @@ public class CognitoServiceTest {
   public static final String INTEGRATION_URL = "http://integration-gateway:8080";
   public static final String CITIZEN_INFORMATION_OAUTH_2_TOKEN =
       "/citizen-information/oauth2/token";
+  private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
   @Mock RestTemplate restTemplate;
+  @Mock Clock clock;
 
-  @InjectMocks CognitoService cognitoService;
+  CognitoService cognitoService;
+  SimpleMeterRegistry meterRegistry;
+  List<Runnable> backgroundRefreshes;
+  Instant now;
 
   @BeforeEach
   public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    backgroundRefreshes = new ArrayList<>();
+    now = NOW;
+    Mockito.lenient().when(clock.instant()).thenAnswer(invocation -> now);
+    cognitoService =
+        new CognitoService(
+            restTemplate,
+            meterRegistry,
+            clock,
+            backgroundRefreshes::add);
     ReflectionTestUtils.setField(cognitoService, "cognitoClientID", "example-client-id");
     ReflectionTestUtils.setField(cognitoService, "cognitoSecret", "example-secret");
     ReflectionTestUtils.setField(
@@ -88,4 +111,159 @@ public class CognitoServiceTest {
 
     verify(restTemplate).postForEntity(anyString(), any(), eq(CognitoToken.class));
   }
+
+  @Test
+  void shouldReuseCachedTokenUntilItIsDueForRefresh() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", "3600")));
+
+    CognitoToken first = cognitoService.getCognitoToken();
+    CognitoToken second = cognitoService.getCognitoToken();
+
+    Assertions.assertSame(first, second);
+    Assertions.assertTrue(backgroundRefreshes.isEmpty());
+    verify(restTemplate, times(1)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+    Assertions.assertEquals(1.0, meterRegistry.counter("identity.cognito.token.hits").count());
+    Assertions.assertEquals(
+        1.0, meterRegistry.counter("identity.cognito.token.refreshes").count());
+  }
+
+  @Test
+  void shouldServeCurrentTokenAndRefreshInBackgroundWhenCloseToExpiry() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", "3600")))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("second", "3600")));
+
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    now = NOW.plusSeconds(3550);
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+
+    Assertions.assertEquals(1, backgroundRefreshes.size());
+    backgroundRefreshes.get(0).run();
+
+    Assertions.assertEquals("second", cognitoService.getCognitoToken().getAccessToken());
+    verify(restTemplate, times(2)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+  }
+
+  @Test
+  void shouldReuseShortLivedTokenForHalfItsLifetime() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", "60")));
+
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    now = NOW.plusSeconds(29);
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    Assertions.assertTrue(backgroundRefreshes.isEmpty());
+
+    now = NOW.plusSeconds(30);
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    Assertions.assertEquals(1, backgroundRefreshes.size());
+    verify(restTemplate, times(1)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+  }
+
+  @Test
+  void shouldShutDownOwnRefreshThread() {
+    CognitoService service = new CognitoService(restTemplate, meterRegistry);
+    ExecutorService refreshExecutor =
+        (ExecutorService) ReflectionTestUtils.getField(service, "refreshExecutor");
+
+    service.shutdown();
+
+    Assertions.assertTrue(refreshExecutor.isShutdown());
+  }
+
+  @Test
+  void shouldRequestNewTokenWhenExpiresInMissing() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", null)));
+
+    cognitoService.getCognitoToken();
+    cognitoService.getCognitoToken();
+
+    verify(restTemplate, times(2)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+    Assertions.assertEquals(0.0, meterRegistry.counter("identity.cognito.token.hits").count());
+  }
+
+  @Test
+  void shouldCountFailuresAndRetryOnNextCall() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenThrow(RestClientException.class)
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", "3600")));
+
+    Assertions.assertThrows(
+        IdentityRestClientException.class, () -> cognitoService.getCognitoToken());
+    Assertions.assertEquals("first", cognitoService.getCognitoToken().getAccessToken());
+    Assertions.assertEquals(
+        1.0, meterRegistry.counter("identity.cognito.token.failures").count());
+  }
+
+  @Test
+  void shouldFetchColdTokenOnRefreshThreadForAsyncCallers() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenReturn(ResponseEntity.ok(tokenExpiringIn("first", "3600")));
+
+    CompletableFuture<CognitoToken> first = cognitoService.getCognitoTokenAsync().toFuture();
+    CompletableFuture<CognitoToken> second = cognitoService.getCognitoTokenAsync().toFuture();
+
+    Assertions.assertFalse(first.isDone());
+    Assertions.assertEquals(1, backgroundRefreshes.size());
+    verify(restTemplate, times(0)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+
+    backgroundRefreshes.get(0).run();
+
+    Assertions.assertEquals("first", first.join().getAccessToken());
+    Assertions.assertEquals("first", second.join().getAccessToken());
+    Assertions.assertEquals(
+        "first", cognitoService.getCognitoTokenAsync().block().getAccessToken());
+    verify(restTemplate, times(1)).postForEntity(anyString(), any(), eq(CognitoToken.class));
+  }
+
+  @Test
+  void shouldSignalAsyncCallersWhenRefreshFails() {
+    Mockito.when(
+            restTemplate.postForEntity(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_OAUTH_2_TOKEN),
+                any(),
+                eq(CognitoToken.class)))
+        .thenThrow(RestClientException.class);
+
+    CompletableFuture<CognitoToken> token = cognitoService.getCognitoTokenAsync().toFuture();
+    backgroundRefreshes.get(0).run();
+
+    CompletionException thrown = Assertions.assertThrows(CompletionException.class, token::join);
+    Assertions.assertInstanceOf(IdentityRestClientException.class, thrown.getCause());
+  }
+
+  private static CognitoToken tokenExpiringIn(String accessToken, String expiresIn) {
+    return CognitoToken.builder()
+        .tokenType("Bearer")
+        .accessToken(accessToken)
+        .expiresIn(expiresIn)
+        .build();
+  }
 }
@@ -4,15 +4,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestClientException;
 import uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinatorDto;
 import uk.gov.dwp.health.coordinator.openapi.v1.api.DefaultApi;
+import uk.gov.dwp.health.pip.identity.config.properties.CoordinatorClientProperties;
 import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
+import uk.gov.dwp.health.pip.identity.model.ApplicationRouting;
 import uk.gov.dwp.health.pip.identity.service.CoordinatorService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinatorDto.RoutedToEnum.PIPCS;
 import static uk.gov.dwp.health.coordinator.openapi.model.ApplicationCoordinatorDto.RoutedToEnum.PIPSERVICE;
@@ -21,7 +26,8 @@ import static uk.gov.dwp.health.pip.identity.service.impl.CoordinatorServiceImpl
 class CoordinatorServiceTest {
 
   private DefaultApi defaultApi = mock(DefaultApi.class);
-  private CoordinatorService coordinatorService = new CoordinatorServiceImpl(defaultApi);
+  private CoordinatorService coordinatorService = new CoordinatorServiceImpl(
+      defaultApi, new CoordinatorClientProperties());
   private static final String applicationId = "String";
 
   @Test
@@ -67,6 +73,33 @@ class CoordinatorServiceTest {
     }
   }
 
+  @Test
+  void resolvesBothRoutesFromSingleCoordinatorCall() {
+    configureMockApi(PIPSERVICE);
+    final ApplicationRouting routing = coordinatorService.resolveRouting(applicationId);
+    assertTrue(routing.isPipServiceApplication());
+    assertFalse(routing.isPipcsApplication());
+    verify(defaultApi, times(1)).getApplication(applicationId, null, null, null);
+  }
+
+  @Test
+  void cachesRoutingPerApplicationId() {
+    configureMockApi(PIPCS);
+    coordinatorService.isPipServiceApplication(applicationId);
+    coordinatorService.isPipcsApplication(applicationId);
+    coordinatorService.resolveRouting(applicationId);
+    verify(defaultApi, times(1)).getApplication(applicationId, null, null, null);
+  }
+
+  @Test
+  void doesNotCacheUnexpectedFailures() {
+    when(
+        defaultApi.getApplication(nullable(String.class), nullable(String.class), nullable(String.class), nullable(String.class))
+    ).thenThrow(new RestClientException("API returned 500")).thenReturn(new ApplicationCoordinatorDto());
+    assertThrows(GenericRuntimeException.class, () -> coordinatorService.resolveRouting(applicationId));
+    assertEquals(ApplicationRouting.UNROUTED, coordinatorService.resolveRouting(applicationId));
+  }
+
   private void configureMockApi(final ApplicationCoordinatorDto.RoutedToEnum routedTo) {
     final ApplicationCoordinatorDto result = new ApplicationCoordinatorDto();
     result.setRoutedTo(routedTo);
@@ -10,9 +10,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.exception.AccountNotFoundException;
 import uk.gov.dwp.health.pip.identity.exception.ConflictException;
+import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
 import uk.gov.dwp.health.pip.identity.exception.ValidationException;
 import uk.gov.dwp.health.pip.identity.messaging.PipIdentityGuidEventPublisher;
 import uk.gov.dwp.health.pip.identity.messaging.PipIdvOutcomeMessagePublisher;
@@ -22,8 +24,8 @@ import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
 import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
 import uk.gov.dwp.health.pip.identity.model.TokenPayload;
 import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
-import uk.gov.dwp.health.pip.identity.repository.RegistrationRepository;
 import uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService;
+import uk.gov.dwp.health.pip.identity.service.RegistrationCounter;
 import uk.gov.dwp.health.pip.identity.webclient.AccountManagerWebClient;
 import uk.gov.dwp.health.pip.identity.webclient.GuidServiceClient;
 
@@ -53,7 +55,7 @@ class IdentityRegistrationServiceTest {
   @Mock private AccountManagerWebClient accountManagerWebClient;
   @Mock private PipIdentityGuidEventPublisher guidEventPublisher;
   @Mock private PipIdvOutcomeMessagePublisher applicationIdLookupPublisher;
-  @Mock private RegistrationRepository registrationRepository;
+  @Mock private RegistrationCounter registrationCounter;
   @Mock private GuidServiceClient guidServiceClient;
 
   private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
@@ -72,7 +74,7 @@ class IdentityRegistrationServiceTest {
             validator,
             guidEventPublisher,
             applicationIdLookupPublisher,
-            registrationRepository,
+            registrationCounter,
             guidServiceClient
         );
   }
@@ -82,11 +84,11 @@ class IdentityRegistrationServiceTest {
     String payload = "{\"sub\": \"" + EMAIL + "\", \"vot\": \"P0.Cl.Cm\", \"guid\": \"123123123\"}";
     when(repository.findBySubjectId(EMAIL)).thenReturn(Optional.empty());
     when(repository.save(any())).thenReturn(Identity.builder().id("1234567890").build());
-    when(guidServiceClient.getNinoFromGuid(anyString())).thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString())).thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
     IdentityResponseDto identityResponseDto = identityApiService.register(payload, OIDV, false);
 
     verify(repository, times(1)).save(identityArgumentCaptor.capture());
-    verify(registrationRepository, times(1)).incrementRegistrationCount();
+    verify(registrationCounter, times(1)).increment();
     verify(guidEventPublisher, never()).publish(any());
 
     assertThat(identityArgumentCaptor)
@@ -94,6 +96,7 @@ class IdentityRegistrationServiceTest {
             arg -> {
               assertThat(arg.getValue().getNino()).isEqualTo(NINO);
               assertThat(arg.getValue().getErrorMessage()).isNull();
+              assertThat(arg.getValue().getComputedStatus()).isEqualTo(UNVERIFIED);
 
               assertThat(arg.getValue().getChannel()).isEqualTo(OIDV);
               assertThat(arg.getValue().getIdvStatus()).isEqualTo(UNVERIFIED);
@@ -108,7 +111,7 @@ class IdentityRegistrationServiceTest {
               assertThat(identityResponse.getRef()).isEqualTo("1234567890");
               assertThat(identityResponse.getApplicationId()).isNull();
             });
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -117,7 +120,7 @@ class IdentityRegistrationServiceTest {
     when(repository.findBySubjectId(EMAIL))
         .thenReturn(Optional.of(Identity.builder().subjectId(EMAIL).build()));
     when(repository.save(any())).thenReturn(Identity.builder().id("1234567890").build());
-    when(guidServiceClient.getNinoFromGuid(anyString())).thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString())).thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
 
     IdentityResponseDto identityResponseDto = identityApiService.register(payload, "oidv", false);
     verify(repository, times(1)).save(identityArgumentCaptor.capture());
@@ -141,7 +144,7 @@ class IdentityRegistrationServiceTest {
               assertThat(identityResponse.getRef()).isEqualTo("1234567890");
               assertThat(identityResponse.getApplicationId()).isNull();
             });
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -154,7 +157,7 @@ class IdentityRegistrationServiceTest {
     verify(guidEventPublisher, times(1)).publish(any(TokenPayload.class));
 
     assertThat(identityResponseDto).isNull();
-    verify(guidServiceClient, times(0)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(0)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -163,14 +166,14 @@ class IdentityRegistrationServiceTest {
     when(repository.findBySubjectId(EMAIL))
         .thenReturn(Optional.of(Identity.builder().subjectId(EMAIL).build()));
     when(repository.save(identityArgumentCaptor.capture())).thenReturn(Identity.builder().id("1234567890").build());
-    when(guidServiceClient.getNinoFromGuid(anyString())).thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString())).thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
 
     IdentityResponseDto identityResponseDto = identityApiService.register(payload, OIDV, null);
 
     verify(guidEventPublisher, times(0)).publish(any(TokenPayload.class));
 
     assertThat(identityResponseDto).isNotNull();
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
     assertThat(identityArgumentCaptor.getValue().getIdvStatus()).isEqualTo(UNVERIFIED);
   }
 
@@ -180,14 +183,14 @@ class IdentityRegistrationServiceTest {
     when(repository.findBySubjectId(EMAIL))
         .thenReturn(Optional.of(Identity.builder().subjectId(EMAIL).build()));
     when(repository.save(any())).thenReturn(Identity.builder().id("1234567890").build());
-    when(guidServiceClient.getNinoFromGuid(anyString())).thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString())).thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
 
     IdentityResponseDto identityResponseDto = identityApiService.register(payload, OIDV, false);
 
     verify(guidEventPublisher, times(0)).publish(any(TokenPayload.class));
 
     assertThat(identityResponseDto).isNotNull();
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -199,7 +202,7 @@ class IdentityRegistrationServiceTest {
     identityApiService.register(payload, "seeded", true);
 
     verify(guidEventPublisher, times(1)).publish(any(TokenPayload.class));
-    verify(guidServiceClient, times(0)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(0)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -211,7 +214,7 @@ class IdentityRegistrationServiceTest {
     identityApiService.register(payload, "seeded", true);
 
     verify(guidEventPublisher, never()).publish(any(TokenPayload.class));
-    verify(guidServiceClient, times(0)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(0)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -236,7 +239,7 @@ class IdentityRegistrationServiceTest {
     when(repository.findBySubjectId(EMAIL)).thenReturn(Optional.empty());
     when(repository.save(any())).thenReturn(Identity.builder().id("1234567890")
         .subjectId(EMAIL).build());
-    when(guidServiceClient.getNinoFromGuid(anyString())).thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString())).thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
 
     IdentityResponseDto identityResponseDto = identityApiService.register(payload, OIDV, false);
 
@@ -262,7 +265,7 @@ class IdentityRegistrationServiceTest {
               assertThat(identityResponse.getApplicationId()).isNull();
               assertThat(identityResponse.getSubjectId()).isEqualTo(EMAIL);
             });
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
   }
 
   @Test
@@ -270,6 +273,8 @@ class IdentityRegistrationServiceTest {
     String payload = "{\"sub\": \"" + EMAIL + "\", \"vot\": \"P0.Cl.Cm\", \"guid\": \"123123123\"}}";
     when(accountManagerWebClient.getAccountDetailsFromEmail(EMAIL
     )).thenReturn(Optional.ofNullable(AccountDetailsResponse.of("1234")));
+    when(guidServiceClient.getNinoFromGuidAsync(anyString()))
+        .thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
 
     verify(repository, never()).save(identityArgumentCaptor.capture());
     verify(guidEventPublisher, never()).publish(any());
@@ -277,13 +282,39 @@ class IdentityRegistrationServiceTest {
     assertThrows(ConflictException.class, () -> identityApiService.register(payload, OIDV, false));
   }
 
+  @Test
+  void shouldPreferAccountConflictOverFailedNinoLookup() {
+    String payload = "{\"sub\": \"" + EMAIL + "\", \"vot\": \"P0.Cl.Cm\", \"guid\": \"123123123\"}}";
+    when(accountManagerWebClient.getAccountDetailsFromEmail(EMAIL))
+        .thenReturn(Optional.ofNullable(AccountDetailsResponse.of("1234")));
+    when(guidServiceClient.getNinoFromGuidAsync(anyString()))
+        .thenReturn(Mono.error(new IdentityRestClientException("Guid service down")));
+
+    assertThrows(ConflictException.class, () -> identityApiService.register(payload, OIDV, false));
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  void shouldPropagateNinoLookupFailureWhenNoAccountExists() {
+    String payload = "{\"sub\": \"" + EMAIL + "\", \"vot\": \"P0.Cl.Cm\", \"guid\": \"123123123\"}}";
+    when(accountManagerWebClient.getAccountDetailsFromEmail(EMAIL))
+        .thenThrow(new AccountNotFoundException("Test"));
+    when(guidServiceClient.getNinoFromGuidAsync(anyString()))
+        .thenReturn(Mono.error(new IdentityRestClientException("Guid service down")));
+
+    assertThrows(
+        IdentityRestClientException.class,
+        () -> identityApiService.register(payload, OIDV, false));
+    verify(repository, never()).save(any());
+  }
+
   @Test
   void shouldThrowExceptionWhenAccountNotFoundExceptionThrown() {
     String payload = "{\"sub\": \"" + EMAIL + "\", \"vot\": \"P0.Cl.Cm\", \"guid\": \"123123123\"}}";
     when(accountManagerWebClient.getAccountDetailsFromEmail(EMAIL))
         .thenThrow(new AccountNotFoundException("Test"));
-    when(guidServiceClient.getNinoFromGuid(anyString()))
-        .thenReturn(IdentifierDto.builder().identifier(NINO).build());
+    when(guidServiceClient.getNinoFromGuidAsync(anyString()))
+        .thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
     when(repository.save(any()))
         .thenReturn(Identity.builder().id("1234567890").subjectId(EMAIL).build());
 
@@ -291,7 +322,7 @@ class IdentityRegistrationServiceTest {
 
     verify(repository, times(1)).save(identityArgumentCaptor.capture());
     verify(guidEventPublisher, never()).publish(any());
-    verify(guidServiceClient, times(1)).getNinoFromGuid(anyString());
+    verify(guidServiceClient, times(1)).getNinoFromGuidAsync(anyString());
     assertThat(identityArgumentCaptor.getValue().getIdvStatus()).isEqualTo(UNVERIFIED);
   }
 
@@ -317,7 +348,7 @@ class IdentityRegistrationServiceTest {
               assertThat(identityResponse.getApplicationId()).isEqualTo("4567");
               assertThat(identityResponse.getSubjectId()).isEqualTo(EMAIL);
             });
-    verify(guidServiceClient, never()).getNinoFromGuid(anyString());
+    verify(guidServiceClient, never()).getNinoFromGuidAsync(anyString());
   }
 
   @Test
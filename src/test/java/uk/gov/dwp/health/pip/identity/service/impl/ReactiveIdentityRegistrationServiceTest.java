@@ -0,0 +1,169 @@
+package uk.gov.dwp.health.pip.identity.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.pip.identity.entity.Identity;
+import uk.gov.dwp.health.pip.identity.exception.ConflictException;
+import uk.gov.dwp.health.pip.identity.exception.IdentityNotFoundException;
+import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
+import uk.gov.dwp.health.pip.identity.messaging.PipIdentityGuidEventPublisher;
+import uk.gov.dwp.health.pip.identity.messaging.PipIdvOutcomeMessagePublisher;
+import uk.gov.dwp.health.pip.identity.model.AccountDetailsResponse;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.IdentityResponseDto;
+import uk.gov.dwp.health.pip.identity.model.TokenPayload;
+import uk.gov.dwp.health.pip.identity.repository.IdentityRepository;
+import uk.gov.dwp.health.pip.identity.repository.ReactiveIdentityRepository;
+import uk.gov.dwp.health.pip.identity.service.IdentityRegistrationService;
+import uk.gov.dwp.health.pip.identity.service.ReactiveIdentityRegistrationService;
+import uk.gov.dwp.health.pip.identity.service.RegistrationCounter;
+import uk.gov.dwp.health.pip.identity.webclient.AccountManagerWebClient;
+import uk.gov.dwp.health.pip.identity.webclient.GuidServiceClient;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.dwp.health.pip.identity.utils.IdentityStatusCalculator.UNVERIFIED;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveIdentityRegistrationServiceTest {
+  private static final String EMAIL = "test.user@dwp.gov.uk";
+  private static final String NINO = "RN000000A";
+  private static final String GUID = "13f03f9da3a0f493e04df091865f8e77f63";
+  private static final String OIDV = IdentityRequestUpdateSchemaV1.Channel.OIDV.value();
+  private static final byte[] PAYLOAD =
+      ("{\"sub\": \"" + EMAIL + "\", \"vot\": \"P2.Cl.Cm\", \"guid\": \"" + GUID + "\"}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  @Mock private IdentityRepository repository;
+  @Mock private ReactiveIdentityRepository reactiveRepository;
+  @Mock private AccountManagerWebClient accountManagerWebClient;
+  @Mock private PipIdentityGuidEventPublisher guidEventPublisher;
+  @Mock private PipIdvOutcomeMessagePublisher applicationIdLookupPublisher;
+  @Mock private RegistrationCounter registrationCounter;
+  @Mock private GuidServiceClient guidServiceClient;
+
+  @Captor private ArgumentCaptor<Identity> identityArgumentCaptor;
+
+  private ReactiveIdentityRegistrationService service;
+
+  @BeforeEach
+  void setUp() {
+    IdentityRegistrationService registrationService =
+        new IdentityRegistrationService(
+            repository,
+            accountManagerWebClient,
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            guidEventPublisher,
+            applicationIdLookupPublisher,
+            registrationCounter,
+            guidServiceClient);
+    service =
+        new ReactiveIdentityRegistrationService(
+            reactiveRepository,
+            registrationService,
+            accountManagerWebClient,
+            guidServiceClient,
+            registrationCounter);
+  }
+
+  @Test
+  void creates_identity_for_new_subject_without_blocking_repository() {
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.empty());
+    when(accountManagerWebClient.getAccountDetailsFromEmailAsync(EMAIL)).thenReturn(Mono.empty());
+    when(guidServiceClient.getNinoFromGuidAsync(GUID))
+        .thenReturn(Mono.just(IdentifierDto.builder().identifier(NINO).build()));
+    when(reactiveRepository.save(identityArgumentCaptor.capture()))
+        .thenReturn(Mono.just(Identity.builder().id("1234567890").nino(NINO).build()));
+    when(registrationCounter.incrementAsync()).thenReturn(Mono.empty());
+
+    IdentityResponseDto response = service.register(PAYLOAD, OIDV, false).block();
+
+    assertThat(response.isCreated()).isTrue();
+    assertThat(response.getIdentityResponse().getRef()).isEqualTo("1234567890");
+    assertThat(identityArgumentCaptor.getValue().getNino()).isEqualTo(NINO);
+    assertThat(identityArgumentCaptor.getValue().getIdvStatus()).isEqualTo(UNVERIFIED);
+    assertThat(identityArgumentCaptor.getValue().getSubjectId()).isEqualTo(EMAIL);
+    verify(registrationCounter).incrementAsync();
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void updates_existing_subject_with_nino_without_a_lookup() {
+    Identity existing = Identity.builder().id("1234567890").subjectId(EMAIL).nino(NINO).build();
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.just(existing));
+    when(accountManagerWebClient.getAccountDetailsFromEmailAsync(EMAIL)).thenReturn(Mono.empty());
+    when(reactiveRepository.save(identityArgumentCaptor.capture()))
+        .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    IdentityResponseDto response = service.register(PAYLOAD, OIDV, false).block();
+
+    assertThat(response.isCreated()).isFalse();
+    assertThat(identityArgumentCaptor.getValue().getVot()).isEqualTo("P2.Cl.Cm");
+    verify(guidServiceClient, never()).getNinoFromGuidAsync(any());
+    verify(registrationCounter, never()).incrementAsync();
+  }
+
+  @Test
+  void existing_account_wins_over_a_failed_nino_lookup() {
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.empty());
+    when(accountManagerWebClient.getAccountDetailsFromEmailAsync(EMAIL))
+        .thenReturn(Mono.just(AccountDetailsResponse.of("5ed0d430716609122be7a4d6")));
+    when(guidServiceClient.getNinoFromGuidAsync(GUID))
+        .thenReturn(Mono.error(new IdentityRestClientException("guid service down")));
+
+    assertThatThrownBy(() -> service.register(PAYLOAD, OIDV, false).block())
+        .isInstanceOf(ConflictException.class);
+    verify(reactiveRepository, never()).save(any());
+  }
+
+  @Test
+  void failed_nino_lookup_fails_the_registration() {
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.empty());
+    when(accountManagerWebClient.getAccountDetailsFromEmailAsync(EMAIL)).thenReturn(Mono.empty());
+    when(guidServiceClient.getNinoFromGuidAsync(GUID))
+        .thenReturn(Mono.error(new IdentityRestClientException("guid service down")));
+
+    assertThatThrownBy(() -> service.register(PAYLOAD, OIDV, false).block())
+        .isInstanceOf(IdentityRestClientException.class);
+    verify(reactiveRepository, never()).save(any());
+  }
+
+  @Test
+  void missing_vot_for_new_subject_is_not_found() {
+    byte[] payload =
+        ("{\"sub\": \"" + EMAIL + "\", \"guid\": \"" + GUID + "\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.empty());
+
+    assertThatThrownBy(() -> service.register(payload, OIDV, false).block())
+        .isInstanceOf(IdentityNotFoundException.class);
+  }
+
+  @Test
+  void publish_completes_empty_after_publishing_the_guid_event() {
+    when(reactiveRepository.findBySubjectId(EMAIL)).thenReturn(Mono.empty());
+
+    IdentityResponseDto response = service.register(PAYLOAD, OIDV, true).block();
+
+    assertThat(response).isNull();
+    verify(guidEventPublisher).publish(any(TokenPayload.class));
+    verifyNoInteractions(accountManagerWebClient);
+  }
+}
@@ -1,12 +1,17 @@
 package uk.gov.dwp.health.pip.identity.utils;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.pip.identity.exception.GenericRuntimeException;
 
+import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,6 +19,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @ExtendWith(MockitoExtension.class)
 public class DateParseUtilTest {
 
+    private static final TimeZone DEFAULT_TIME_ZONE = TimeZone.getDefault();
+
+    @AfterEach
+    void restoreTimeZone() {
+        TimeZone.setDefault(DEFAULT_TIME_ZONE);
+    }
+
     @Test
     void dateTimeToString_formatsDate_whenGivenValidDateAtMidnight() {
         LocalDateTime dateTime = LocalDate.of(2020, 1, 8).atStartOfDay();
@@ -46,4 +58,52 @@ public class DateParseUtilTest {
         String stringToConvert = "An invalid string";
         assertThrows(GenericRuntimeException.class, () -> DateParseUtil.stringToDateTime(stringToConvert));
     }
+
+    @Test
+    void stringToDateTime_shiftsTimeInDstGapForward_asTheLenientParseDid() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+
+        assertEquals(LocalDate.of(2021, 3, 28).atTime(2, 30),
+                DateParseUtil.stringToDateTime("2021-03-28 01:30:00"));
+        assertEquals(LocalDate.of(2021, 10, 31).atTime(1, 30),
+                DateParseUtil.stringToDateTime("2021-10-31 01:30:00"));
+    }
+
+    @Test
+    void stringToDateTime_rollsOverOutOfRangeFields_asTheLenientParseDid() {
+        assertEquals(LocalDate.of(2020, 3, 1).atTime(10, 0),
+                DateParseUtil.stringToDateTime("2020-02-30 10:00:00"));
+    }
+
+    @Test
+    void stringToDateTime_matchesLenientParse_forOtherShapes() throws Exception {
+        String[] dateStamps = {"08-01-2020 10:11:12", "2020-1-8 1:2:3", "1900-01-01 00:00:00"};
+        for (String dateStamp : dateStamps) {
+            assertEquals(lenientParse(dateStamp), DateParseUtil.stringToDateTime(dateStamp));
+        }
+    }
+
+    @Test
+    void stringToDateTime_matchesLenientParse_acrossTimeZones() throws Exception {
+        Random random = new Random(42);
+        String[] zones = {"UTC", "Europe/London", "America/New_York", "Australia/Lord_Howe"};
+        for (String zone : zones) {
+            TimeZone.setDefault(TimeZone.getTimeZone(zone));
+            for (int i = 0; i < 10_000; i++) {
+                LocalDateTime dateTime = LocalDate.of(1970, 1, 1)
+                        .plusDays(random.nextInt(60_000))
+                        .atStartOfDay()
+                        .plusSeconds(random.nextInt(86_400));
+                String dateStamp = DateParseUtil.dateTimeToString(dateTime);
+                assertEquals(lenientParse(dateStamp), DateParseUtil.stringToDateTime(dateStamp),
+                        zone + " " + dateStamp);
+            }
+        }
+    }
+
+    private static LocalDateTime lenientParse(String dateStamp) throws Exception {
+        return LocalDateTime.ofInstant(
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(dateStamp).toInstant(),
+                ZoneId.systemDefault());
+    }
 }
@@ -7,6 +7,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.dwp.health.pip.identity.entity.Identity;
 import uk.gov.dwp.health.pip.identity.model.IdentityRequestUpdateSchemaV1;
+import uk.gov.dwp.health.pip.identity.model.IdentityStatus;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -52,5 +53,11 @@ public class IdentityStatusCalculatorTest {
     final var value = IdentityStatusCalculator.fromIdentity(identity);
     assertThat(value).isEqualTo(expected);
   }
-}
 
+  @ParameterizedTest(name = "fromStatus should give {3} when given idvStatus = {0}, vot = {1} and nino = {2}")
+  @MethodSource("provideParameters")
+  void calculateStatusFromProjection(String idvStatus, String vot, String nino, String expected) {
+    final var value = IdentityStatusCalculator.fromStatus(new IdentityStatus(nino, vot, idvStatus));
+    assertThat(value).isEqualTo(expected);
+  }
+}
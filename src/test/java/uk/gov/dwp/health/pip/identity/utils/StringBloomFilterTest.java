@@ -0,0 +1,46 @@
+package uk.gov.dwp.health.pip.identity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringBloomFilterTest {
+
+  @Test
+  void every_value_put_is_reported_as_possibly_present() {
+    StringBloomFilter filter = new StringBloomFilter(1_000, 0.01);
+    IntStream.range(0, 1_000).mapToObj(i -> "key-" + i).forEach(filter::put);
+
+    assertThat(IntStream.range(0, 1_000).mapToObj(i -> "key-" + i))
+        .allMatch(filter::mightContain);
+  }
+
+  @Test
+  void absent_values_are_mostly_reported_as_absent() {
+    StringBloomFilter filter = new StringBloomFilter(1_000, 0.01);
+    IntStream.range(0, 1_000).mapToObj(i -> "key-" + i).forEach(filter::put);
+
+    long falsePositives =
+        IntStream.range(0, 10_000)
+            .mapToObj(i -> "other-" + i)
+            .filter(filter::mightContain)
+            .count();
+
+    assertThat(falsePositives).isLessThan(300);
+  }
+
+  @Test
+  void put_reports_whether_the_value_was_new_to_the_filter() {
+    StringBloomFilter filter = new StringBloomFilter(1_000, 0.01);
+
+    assertThat(filter.put("key")).isTrue();
+    assertThat(filter.put("key")).isFalse();
+  }
+
+  @Test
+  void empty_filter_contains_nothing() {
+    assertThat(new StringBloomFilter(10, 0.01).mightContain("key")).isFalse();
+  }
+}
@@ -0,0 +1,62 @@
+package uk.gov.dwp.health.pip.identity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenUtilsTest {
+
+  private static final String TOKEN =
+      "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiJhYmNAZ21haWwuY29tIiwidm90I"
+          + "joiUDIuQ2wuQ20iLCJpYXQiOjE1MTYyMzkwMjJ9.zxdfmq-Mo5MRWOKfyamKuSPWQF4gr8aLFU2zseFh7TA";
+
+  @Test
+  void decodes_the_payload_segment() {
+    assertThat(TokenUtils.decodePayload(TOKEN))
+        .isEqualTo("{\"sub\":\"abc@gmail.com\",\"vot\":\"P2.Cl.Cm\",\"iat\":1516239022}");
+  }
+
+  @Test
+  void decoded_bytes_match_the_jdk_url_decoder_with_and_without_padding() {
+    Random random = new Random(42);
+    for (int length = 0; length < 64; length++) {
+      byte[] payload = new byte[length];
+      random.nextBytes(payload);
+      String padded = Base64.getUrlEncoder().encodeToString(payload);
+      String unpadded = Base64.getUrlEncoder().withoutPadding().encodeToString(payload);
+
+      assertThat(TokenUtils.decodePayloadBytes("header." + padded + ".signature"))
+          .isEqualTo(payload);
+      assertThat(TokenUtils.decodePayloadBytes("header." + unpadded)).isEqualTo(payload);
+    }
+  }
+
+  @Test
+  void decodes_multi_byte_characters() {
+    String json = "{\"sub\":\"zoë@example.com\"}";
+    String token =
+        "header."
+            + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(json.getBytes(StandardCharsets.UTF_8))
+            + ".signature";
+
+    assertThat(TokenUtils.decodePayload(token)).isEqualTo(json);
+  }
+
+  @Test
+  void rejects_a_token_without_a_payload_segment() {
+    assertThatThrownBy(() -> TokenUtils.decodePayloadBytes("no-dots-here"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejects_characters_outside_the_url_alphabet() {
+    assertThatThrownBy(() -> TokenUtils.decodePayloadBytes("header.ab+/.signature"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -64,4 +64,40 @@ class AccountManagerWebClientTest {
 
     }
 
+    @Test
+    void shouldEmitFirstAccountForGetDetailsAsync() {
+        final var uriSpecMock = mock(WebClient.RequestHeadersUriSpec.class);
+        final var headerSpecMock = mock(WebClient.RequestHeadersSpec.class);
+        final var responseSpecMock = mock(WebClient.ResponseSpec.class);
+        AccountDetailsResponse[] accountResponse =
+                {AccountDetailsResponse.of("5ed0d430716609122be7a4d6")};
+
+        when(webClient.get()).thenReturn(uriSpecMock);
+        when(uriSpecMock.uri("/v4/account/details/email/test@email.com")).thenReturn(headerSpecMock);
+        when(headerSpecMock.retrieve()).thenReturn(responseSpecMock);
+        when(responseSpecMock.bodyToMono(AccountDetailsResponse[].class))
+                .thenReturn(Mono.just(accountResponse));
+
+        var accountDetailsResponse =
+                managerWebClient.getAccountDetailsFromEmailAsync("test@email.com").block();
+        assertThat(accountDetailsResponse.getAccountId()).isEqualTo("5ed0d430716609122be7a4d6");
+    }
+
+    @Test
+    void shouldCompleteEmptyForGetDetailsAsyncWhenAccountManagerReturnsEmptyArray() {
+        final var uriSpecMock = mock(WebClient.RequestHeadersUriSpec.class);
+        final var headerSpecMock = mock(WebClient.RequestHeadersSpec.class);
+        final var responseSpecMock = mock(WebClient.ResponseSpec.class);
+        AccountDetailsResponse[] accountResponse = {};
+
+        when(webClient.get()).thenReturn(uriSpecMock);
+        when(uriSpecMock.uri("/v4/account/details/email/test@email.com")).thenReturn(headerSpecMock);
+        when(headerSpecMock.retrieve()).thenReturn(responseSpecMock);
+        when(responseSpecMock.bodyToMono(AccountDetailsResponse[].class))
+                .thenReturn(Mono.just(accountResponse));
+
+        assertThat(managerWebClient.getAccountDetailsFromEmailAsync("test@email.com").blockOptional())
+                .isEmpty();
+    }
+
 }
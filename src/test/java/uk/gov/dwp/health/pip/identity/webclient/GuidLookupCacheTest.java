@@ -0,0 +1,76 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dwp.health.pip.identity.config.properties.GuidCacheProperties;
+import uk.gov.dwp.health.pip.identity.constants.Constants;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+
+class GuidLookupCacheTest {
+
+  private static final String GUID = "guid-value";
+  private static final String NINO = "RN000008A";
+
+  private SimpleMeterRegistry meterRegistry;
+  private GuidLookupCache guidLookupCache;
+
+  @BeforeEach
+  void setup() {
+    GuidCacheProperties properties = new GuidCacheProperties();
+    properties.setMaxSize(100);
+    properties.setTtl(Duration.ofMinutes(5));
+    meterRegistry = new SimpleMeterRegistry();
+    guidLookupCache = new GuidLookupCache(properties, meterRegistry);
+  }
+
+  @Test
+  void shouldFillReverseEntryWhenNinoCachedForGuid() {
+    guidLookupCache.putNinoForGuid(
+        GUID, IdentifierDto.builder().identifier(NINO).type(Constants.NINO).build());
+
+    assertThat(guidLookupCache.getNinoForGuid(GUID))
+        .hasValueSatisfying(nino -> assertThat(nino.getIdentifier()).isEqualTo(NINO));
+    assertThat(guidLookupCache.getGuidForNino(NINO))
+        .hasValueSatisfying(
+            guid -> {
+              assertThat(guid.getIdentifier()).isEqualTo(GUID);
+              assertThat(guid.getType()).isEqualTo(Constants.DWP_GUID);
+            });
+  }
+
+  @Test
+  void shouldFillReverseEntryWhenGuidCachedForNino() {
+    guidLookupCache.putGuidForNino(
+        NINO, IdentifierDto.builder().identifier(GUID).type(Constants.DWP_GUID).build());
+
+    assertThat(guidLookupCache.getNinoForGuid(GUID))
+        .hasValueSatisfying(
+            nino -> {
+              assertThat(nino.getIdentifier()).isEqualTo(NINO);
+              assertThat(nino.getType()).isEqualTo(Constants.NINO);
+            });
+  }
+
+  @Test
+  void shouldIgnoreEmptyIdentifiers() {
+    guidLookupCache.putNinoForGuid(GUID, IdentifierDto.builder().type(Constants.NINO).build());
+    guidLookupCache.putGuidForNino(NINO, null);
+
+    assertThat(guidLookupCache.getNinoForGuid(GUID)).isEmpty();
+    assertThat(guidLookupCache.getGuidForNino(NINO)).isEmpty();
+  }
+
+  @Test
+  void shouldRegisterCacheMetrics() {
+    guidLookupCache.getNinoForGuid(GUID);
+
+    assertThat(meterRegistry.find("cache.gets").tag("cache", "guidServiceNinoByGuid").meters())
+        .isNotEmpty();
+    assertThat(meterRegistry.find("cache.evictions").tag("cache", "guidServiceGuidByNino").meters())
+        .isNotEmpty();
+  }
+}
@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.eq;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.pip.identity.config.properties.GuidCacheProperties;
 import uk.gov.dwp.health.pip.identity.constants.Constants;
 import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
 import uk.gov.dwp.health.pip.identity.model.CognitoToken;
@@ -42,10 +46,20 @@ public class GuidServiceClientTest {
   @Captor private ArgumentCaptor<HttpEntity> httpEntityArgumentCaptor;
   @Mock private RestTemplate restTemplate;
   @Mock private CognitoService cognitoService;
+  private GuidLookupCache guidLookupCache;
 
   @BeforeEach
   void setup() {
-    guidServiceClient = new GuidServiceClient(objectMapper, restTemplate, cognitoService);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    guidLookupCache = new GuidLookupCache(new GuidCacheProperties(), meterRegistry);
+    guidServiceClient =
+        new GuidServiceClient(
+            objectMapper,
+            restTemplate,
+            cognitoService,
+            guidLookupCache,
+            Optional.empty(),
+            meterRegistry);
     ReflectionTestUtils.setField(
         guidServiceClient, "guidServiceNinoUrl", CITIZEN_INFORMATION_DWP_GUID_SERVICE_NINO);
     ReflectionTestUtils.setField(
@@ -189,6 +203,102 @@ public class GuidServiceClientTest {
         exception.getMessage(), "Error Communicating with Guid Server, review application logs");
   }
 
+  @Test
+  void shouldServeRepeatedNinoLookupsAndReverseLookupFromCache() {
+    CognitoToken cognitoToken =
+        CognitoToken.builder().tokenType("Bearer").accessToken("example-token").build();
+    IdentifierDto identifierDto =
+        IdentifierDto.builder().type(Constants.NINO).identifier(sampleNino).build();
+    Mockito.when(cognitoService.getCognitoToken()).thenReturn(cognitoToken);
+    Mockito.when(
+            restTemplate.exchange(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_DWP_GUID_SERVICE_NINO),
+                eq(HttpMethod.GET),
+                any(),
+                eq(String.class)))
+        .thenReturn(ResponseEntity.ok(getIdentifierResponse(identifierDto)));
+
+    guidServiceClient.getNinoFromGuid(SAMPLE_GUID);
+    IdentifierDto cachedNino = guidServiceClient.getNinoFromGuid(SAMPLE_GUID);
+    IdentifierDto cachedGuid = guidServiceClient.getGuidFromNino(sampleNino);
+
+    Assertions.assertEquals(sampleNino, cachedNino.getIdentifier());
+    Assertions.assertEquals(SAMPLE_GUID, cachedGuid.getIdentifier());
+    Assertions.assertEquals(Constants.DWP_GUID, cachedGuid.getType());
+    Mockito.verify(cognitoService).getCognitoToken();
+    Mockito.verify(restTemplate).exchange(anyString(), eq(HttpMethod.GET), any(), eq(String.class));
+  }
+
+  @Test
+  void shouldNotCacheFailedLookups() {
+    CognitoToken cognitoToken =
+        CognitoToken.builder().tokenType("Bearer").accessToken("example-token").build();
+    Mockito.when(cognitoService.getCognitoToken()).thenReturn(cognitoToken);
+    Mockito.when(
+            restTemplate.exchange(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_DWP_GUID_SERVICE_GUID),
+                eq(HttpMethod.GET),
+                any(),
+                eq(String.class)))
+        .thenThrow(new RestClientException("Unknown Exception"));
+
+    Assertions.assertThrows(
+        IdentityRestClientException.class, () -> guidServiceClient.getGuidFromNino(sampleNino));
+    Assertions.assertThrows(
+        IdentityRestClientException.class, () -> guidServiceClient.getGuidFromNino(sampleNino));
+
+    Mockito.verify(restTemplate, Mockito.times(2))
+        .exchange(anyString(), eq(HttpMethod.GET), any(), eq(String.class));
+  }
+
+  @Test
+  void shouldWrapBlockingLookupWhenReactiveClientDisabled() {
+    CognitoToken cognitoToken =
+        CognitoToken.builder().tokenType("Bearer").accessToken("example-token").build();
+    IdentifierDto identifierDto =
+        IdentifierDto.builder().type(Constants.NINO).identifier(sampleNino).build();
+    Mockito.when(cognitoService.getCognitoToken()).thenReturn(cognitoToken);
+    Mockito.when(
+            restTemplate.exchange(
+                eq(INTEGRATION_URL + CITIZEN_INFORMATION_DWP_GUID_SERVICE_NINO),
+                eq(HttpMethod.GET),
+                any(),
+                eq(String.class)))
+        .thenReturn(ResponseEntity.ok(getIdentifierResponse(identifierDto)));
+
+    IdentifierDto ninoIdentifierResponse =
+        guidServiceClient.getNinoFromGuidAsync(SAMPLE_GUID).block();
+
+    Assertions.assertEquals(sampleNino, ninoIdentifierResponse.getIdentifier());
+  }
+
+  @Test
+  void shouldUseReactiveClientAndCacheWhenEnabled() {
+    ReactiveGuidServiceClient reactiveClient = Mockito.mock(ReactiveGuidServiceClient.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    GuidServiceClient reactiveGuidServiceClient =
+        new GuidServiceClient(
+            objectMapper,
+            restTemplate,
+            cognitoService,
+            guidLookupCache,
+            Optional.of(reactiveClient),
+            meterRegistry);
+    Mockito.when(reactiveClient.getGuidFromNino(sampleNino))
+        .thenReturn(
+            Mono.just(
+                IdentifierDto.builder().type(Constants.DWP_GUID).identifier(SAMPLE_GUID).build()));
+
+    IdentifierDto guid = reactiveGuidServiceClient.getGuidFromNino(sampleNino);
+    IdentifierDto cachedNino = reactiveGuidServiceClient.getNinoFromGuidAsync(SAMPLE_GUID).block();
+
+    Assertions.assertEquals(SAMPLE_GUID, guid.getIdentifier());
+    Assertions.assertEquals(sampleNino, cachedNino.getIdentifier());
+    Mockito.verify(reactiveClient).getGuidFromNino(sampleNino);
+    Mockito.verifyNoMoreInteractions(reactiveClient);
+    Mockito.verifyNoInteractions(restTemplate, cognitoService);
+  }
+
   private String getIdentifierResponse(IdentifierDto identifierDto) {
     try {
       return objectMapper.writeValueAsString(identifierDto);
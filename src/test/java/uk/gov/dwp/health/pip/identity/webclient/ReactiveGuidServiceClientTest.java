@@ -0,0 +1,111 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import uk.gov.dwp.health.pip.identity.constants.Constants;
+import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
+import uk.gov.dwp.health.pip.identity.model.CognitoToken;
+import uk.gov.dwp.health.pip.identity.model.IdentifierDto;
+import uk.gov.dwp.health.pip.identity.service.impl.CognitoService;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveGuidServiceClientTest {
+  private static final String NINO_URL = "/citizen-information/dwp-guid-service/nino";
+  private static final String GUID_URL = "/citizen-information/dwp-guid-service/guid";
+  private static final String SAMPLE_GUID =
+      "12345678abcdabcd12345678abcdabcd12345678abcdabcd12345678abcdabcd";
+  private static final String SAMPLE_NINO = "RN000008A";
+
+  @Mock private CognitoService cognitoService;
+  private final AtomicReference<ClientRequest> capturedRequest = new AtomicReference<>();
+
+  private ReactiveGuidServiceClient clientRespondingWith(HttpStatus status, String body) {
+    WebClient webClient =
+        WebClient.builder()
+            .baseUrl("http://integration-gateway:8080")
+            .exchangeFunction(
+                request -> {
+                  capturedRequest.set(request);
+                  return Mono.just(
+                      ClientResponse.create(status)
+                          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                          .body(body)
+                          .build());
+                })
+            .build();
+    ReactiveGuidServiceClient client =
+        new ReactiveGuidServiceClient(new ObjectMapper(), webClient, cognitoService);
+    ReflectionTestUtils.setField(client, "guidServiceNinoUrl", NINO_URL);
+    ReflectionTestUtils.setField(client, "guidServiceGuidUrl", GUID_URL);
+    when(cognitoService.getCognitoTokenAsync())
+        .thenReturn(
+            Mono.just(CognitoToken.builder().tokenType("Bearer").accessToken("token").build()));
+    return client;
+  }
+
+  @Test
+  void shouldReturnNinoFromGuid() {
+    ReactiveGuidServiceClient client =
+        clientRespondingWith(
+            HttpStatus.OK, "{\"identifier\":\"" + SAMPLE_NINO + "\",\"type\":\"NINO\"}");
+
+    IdentifierDto nino = client.getNinoFromGuid(SAMPLE_GUID).block();
+
+    Assertions.assertEquals(SAMPLE_NINO, nino.getIdentifier());
+    Assertions.assertEquals(Constants.NINO, nino.getType());
+    Assertions.assertEquals(NINO_URL, capturedRequest.get().url().getPath());
+    Assertions.assertEquals(
+        SAMPLE_GUID, capturedRequest.get().headers().getFirst(Constants.IDENTIFIER));
+    Assertions.assertEquals(
+        "Bearer token", capturedRequest.get().headers().getFirst(HttpHeaders.AUTHORIZATION));
+  }
+
+  @Test
+  void shouldReturnGuidFromNino() {
+    ReactiveGuidServiceClient client =
+        clientRespondingWith(
+            HttpStatus.OK, "{\"identifier\":\"" + SAMPLE_GUID + "\",\"type\":\"DWP_GUID\"}");
+
+    IdentifierDto guid = client.getGuidFromNino(SAMPLE_NINO).block();
+
+    Assertions.assertEquals(SAMPLE_GUID, guid.getIdentifier());
+    Assertions.assertEquals(GUID_URL, capturedRequest.get().url().getPath());
+  }
+
+  @Test
+  void shouldThrowRestClientExceptionWhenGuidServiceReturnsError() {
+    ReactiveGuidServiceClient client = clientRespondingWith(HttpStatus.INTERNAL_SERVER_ERROR, "");
+
+    IdentityRestClientException exception =
+        Assertions.assertThrows(
+            IdentityRestClientException.class,
+            () -> client.getNinoFromGuid(SAMPLE_GUID).block());
+    Assertions.assertEquals(
+        "Error Communicating with Guid Server, review application logs", exception.getMessage());
+  }
+
+  @Test
+  void shouldThrowRuntimeExceptionWhenStatusCodeNot200() {
+    ReactiveGuidServiceClient client = clientRespondingWith(HttpStatus.ACCEPTED, "");
+
+    RuntimeException exception =
+        Assertions.assertThrows(
+            RuntimeException.class, () -> client.getNinoFromGuid(SAMPLE_GUID).block());
+    Assertions.assertEquals("Exception calling guid service", exception.getMessage());
+  }
+}
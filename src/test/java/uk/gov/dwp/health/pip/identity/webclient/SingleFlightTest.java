@@ -0,0 +1,151 @@
+package uk.gov.dwp.health.pip.identity.webclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import uk.gov.dwp.health.pip.identity.exception.IdentityRestClientException;
+
+class SingleFlightTest {
+
+  private Counter collapsedCalls;
+  private SingleFlight<String, String> singleFlight;
+
+  @BeforeEach
+  void setup() {
+    collapsedCalls = new SimpleMeterRegistry().counter("collapsed");
+    singleFlight = new SingleFlight<>(collapsedCalls);
+  }
+
+  @Test
+  void shouldShareInFlightResultWithConcurrentCallersForSameKey() throws Exception {
+    CountDownLatch callStarted = new CountDownLatch(1);
+    CountDownLatch releaseCall = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+
+    CompletableFuture<String> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                singleFlight.execute(
+                    "guid",
+                    () -> {
+                      calls.incrementAndGet();
+                      callStarted.countDown();
+                      awaitQuietly(releaseCall);
+                      return "nino";
+                    }));
+    assertThat(callStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    CompletableFuture<String> second =
+        CompletableFuture.supplyAsync(
+            () -> singleFlight.execute("guid", () -> "unexpected-" + calls.incrementAndGet()));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> collapsedCalls.count() >= 1);
+    releaseCall.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("nino");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("nino");
+    assertThat(calls.get()).isEqualTo(1);
+    assertThat(collapsedCalls.count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldCallAgainOnceFirstCallCompletes() {
+    AtomicInteger calls = new AtomicInteger();
+
+    singleFlight.execute("guid", () -> "nino-" + calls.incrementAndGet());
+    String second = singleFlight.execute("guid", () -> "nino-" + calls.incrementAndGet());
+
+    assertThat(second).isEqualTo("nino-2");
+    assertThat(collapsedCalls.count()).isZero();
+  }
+
+  @Test
+  void shouldRethrowCallException() {
+    assertThatThrownBy(
+            () ->
+                singleFlight.execute(
+                    "guid",
+                    () -> {
+                      throw new IdentityRestClientException("failed");
+                    }))
+        .isInstanceOf(IdentityRestClientException.class);
+
+    assertThat(singleFlight.execute("guid", () -> "nino")).isEqualTo("nino");
+  }
+
+  @Test
+  void shouldShareInFlightAsyncResultWithLaterSubscribers() {
+    Sinks.One<String> response = Sinks.one();
+    AtomicInteger calls = new AtomicInteger();
+
+    Mono<String> first =
+        singleFlight.executeAsync(
+            "guid", () -> response.asMono().doOnSubscribe(s -> calls.incrementAndGet()));
+    Mono<String> second =
+        singleFlight.executeAsync(
+            "guid", () -> Mono.fromCallable(() -> "unexpected-" + calls.incrementAndGet()));
+
+    CompletableFuture<String> firstResult = first.toFuture();
+    CompletableFuture<String> secondResult = second.toFuture();
+    response.tryEmitValue("nino");
+
+    assertThat(firstResult.join()).isEqualTo("nino");
+    assertThat(secondResult.join()).isEqualTo("nino");
+    assertThat(calls.get()).isEqualTo(1);
+    assertThat(collapsedCalls.count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldStillCompleteWaitersWhenFirstSubscriberCancels() {
+    Sinks.One<String> response = Sinks.one();
+    AtomicInteger cancels = new AtomicInteger();
+
+    Disposable first =
+        singleFlight
+            .executeAsync("guid", () -> response.asMono().doOnCancel(cancels::incrementAndGet))
+            .subscribe();
+    CompletableFuture<String> second =
+        singleFlight.executeAsync("guid", () -> Mono.just("unexpected")).toFuture();
+    first.dispose();
+    response.tryEmitValue("nino");
+
+    assertThat(second.join()).isEqualTo("nino");
+    assertThat(cancels.get()).isZero();
+    assertThat(singleFlight.executeAsync("guid", () -> Mono.just("next")).block())
+        .isEqualTo("next");
+  }
+
+  @Test
+  void shouldCompleteAsyncWaitersWithCallError() {
+    Sinks.One<String> response = Sinks.one();
+
+    CompletableFuture<String> first =
+        singleFlight.executeAsync("guid", response::asMono).toFuture();
+    CompletableFuture<String> second =
+        singleFlight.executeAsync("guid", () -> Mono.just("unexpected")).toFuture();
+    response.tryEmitError(new IdentityRestClientException("failed"));
+
+    assertThatThrownBy(first::join).hasCauseInstanceOf(IdentityRestClientException.class);
+    assertThatThrownBy(second::join).hasCauseInstanceOf(IdentityRestClientException.class);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}